@@ -0,0 +1,41 @@
+package org.example.bookingsystemapp.api;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.bookingsystemapp.model.FreeSchedulesOfDoctorDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReqDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReturnDTO;
+import org.example.bookingsystemapp.service.ReactiveScheduleService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Read-only variants of {@code GET /schedule/free/{doctorId}} and {@code POST /schedule/criteria} for polling clients.
+ * They return {@link Mono}s, so Spring MVC completes the request asynchronously and the servlet thread is released
+ * while the answer is produced. Writes stay on the generated API.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ScheduleReactiveController {
+
+    private final ReactiveScheduleService reactiveScheduleService;
+
+    @PreAuthorize("hasRole('PATIENT')")
+    @GetMapping("/reactive/schedule/free/{doctorId}")
+    public Mono<List<FreeSchedulesOfDoctorDTO>> getFreeSchedulesOfDoctor(@PathVariable Long doctorId) {
+        return reactiveScheduleService.getFreeSchedulesOfDoctor(doctorId);
+    }
+
+    @PreAuthorize("hasRole('PATIENT')")
+    @PostMapping("/reactive/schedule/criteria")
+    public Mono<List<ScheduleCriteriaReturnDTO>> getSchedulesByCriteria(@Valid @RequestBody ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
+        return reactiveScheduleService.getSchedulesByCriteria(scheduleCriteriaReqDTO);
+    }
+}
@@ -3,6 +3,7 @@ package org.example.bookingsystemapp.api;
 import lombok.RequiredArgsConstructor;
 import org.example.bookingsystemapp.model.*;
 import org.example.bookingsystemapp.service.SchedulesService;
+import org.example.bookingsystemapp.service.help.AvailabilityVersions;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,6 +16,7 @@ import java.util.List;
 public class ScheduleRestController implements ScheduleApiDelegate {
 
     private final SchedulesService schedulesService;
+    private final AvailabilityVersions availabilityVersions;
 
     @Override
     @PreAuthorize("hasRole('DOCTOR')")
@@ -23,11 +25,24 @@ public class ScheduleRestController implements ScheduleApiDelegate {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @Override
+    @PreAuthorize("hasRole('DOCTOR')")
+    public ResponseEntity<RecurringScheduleResultDTO> addRecurringDoctorSchedules(RecurringScheduleDTO recurringScheduleDTO) {
+        RecurringScheduleResultDTO result = schedulesService.addRecurringDoctorSchedules(recurringScheduleDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
     @Override
     @PreAuthorize("hasRole('PATIENT')")
-    public ResponseEntity<DoctorScheduleSingleDTO> getDoctorSchedule(Long id) {
+    public ResponseEntity<DoctorScheduleSingleDTO> getDoctorSchedule(Long id, String ifNoneMatch) {
+        var known = availabilityVersions.scheduleETag(id);
+        if (AvailabilityVersions.matches(ifNoneMatch, known)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(known).build();
+        }
         DoctorScheduleSingleDTO single = schedulesService.getScheduleById(id);
-        return ResponseEntity.ok(single);
+        return ResponseEntity.ok()
+                .eTag(availabilityVersions.scheduleLoaded(single.getId(), single.getVersion()))
+                .body(single);
     }
 
     @Override
@@ -51,6 +66,27 @@ public class ScheduleRestController implements ScheduleApiDelegate {
         return ResponseEntity.ok(bookingDTO);
     }
 
+    @Override
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<List<BookingDTO>> createBatchBooking(CreateBatchBookingDTO createBatchBookingDTO) {
+        List<BookingDTO> bookings = schedulesService.createBatchBooking(createBatchBookingDTO);
+        return ResponseEntity.ok(bookings);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<SlotHoldDTO> holdSchedule(SlotHoldDTO slotHoldDTO) {
+        SlotHoldDTO hold = schedulesService.holdSchedule(slotHoldDTO);
+        return ResponseEntity.ok(hold);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<Void> releaseScheduleHold(SlotHoldDTO slotHoldDTO) {
+        schedulesService.releaseScheduleHold(slotHoldDTO);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
     @Override
     @PreAuthorize("hasRole('PATIENT')")
     public ResponseEntity<List<ScheduleCriteriaReturnDTO>> getSchedulesByCriteria(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
@@ -60,8 +96,12 @@ public class ScheduleRestController implements ScheduleApiDelegate {
 
     @Override
     @PreAuthorize("hasRole('PATIENT')")
-    public ResponseEntity<List<FreeSchedulesOfDoctorDTO>> getFreeSchedulesOfDoctor(Long doctorId) {
+    public ResponseEntity<List<FreeSchedulesOfDoctorDTO>> getFreeSchedulesOfDoctor(Long doctorId, String ifNoneMatch) {
+        var etag = availabilityVersions.freeSchedulesETag(doctorId);
+        if (AvailabilityVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<FreeSchedulesOfDoctorDTO> schedules = schedulesService.getFreeSchedulesOfDoctor(doctorId);
-        return ResponseEntity.ok(schedules);
+        return ResponseEntity.ok().eTag(etag).body(schedules);
     }
 }
@@ -0,0 +1,51 @@
+package org.example.bookingsystemapp.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReqDTO;
+import org.example.bookingsystemapp.service.SchedulesService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * NDJSON variant of {@code POST /schedule/criteria} for clients pulling whole date ranges:
+ * rows are scrolled from the database and written one per line instead of being collected into a page.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ScheduleStreamController {
+
+    private final SchedulesService schedulesService;
+    private final ObjectMapper objectMapper;
+
+    @PreAuthorize("hasRole('PATIENT')")
+    @PostMapping(value = "/schedule/criteria/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSchedulesByCriteria(@Valid @RequestBody ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
+        schedulesService.validateSchedulesCriteria(scheduleCriteriaReqDTO);
+
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> schedulesService.streamSchedulesByCriteria(scheduleCriteriaReqDTO, row -> {
+            try {
+                writer.writeValue(outputStream, row);
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
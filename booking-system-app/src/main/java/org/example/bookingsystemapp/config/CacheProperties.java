@@ -0,0 +1,27 @@
+package org.example.bookingsystemapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "bookingapp")
+public class CacheProperties {
+
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    /**
+     * Weight of an entry is the number of elements it holds (1 for non-collection values),
+     * so {@code maximumWeight} bounds the number of cached DTOs rather than the number of keys.
+     */
+    @Data
+    public static class CacheSpec {
+        private long maximumWeight = 100_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(3);
+        private Duration refreshAfterWrite;
+        private boolean recordStats = true;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.bookingsystemapp.config;
+
+/**
+ * Recomputes a cached value for {@code refresh-after-write}. Returning {@code null} removes the entry.
+ */
+public interface CacheReloader {
+
+    String cacheName();
+
+    Object reload(Object key);
+
+    /**
+     * Called when an entry expired or was evicted for size. Expiry is scheduled, so it is noticed without further reads.
+     */
+    default void evicted(Object key) {
+    }
+}
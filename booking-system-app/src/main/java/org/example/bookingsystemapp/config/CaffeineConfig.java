@@ -1,27 +1,61 @@
 package org.example.bookingsystemapp.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @EnableCaching
 @Configuration
+@EnableConfigurationProperties(CacheProperties.class)
 public class CaffeineConfig {
 
-    @Bean
-    public Caffeine caffeineConfigBean() {
-        return Caffeine.newBuilder().expireAfterWrite(3, TimeUnit.MINUTES);
-    }
+    static final Weigher<Object, Object> ELEMENT_WEIGHER = (key, value) ->
+            value instanceof Collection<?> collection ? Math.max(1, collection.size()) : 1;
 
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-        var caffeineCacheManager = new CaffeineCacheManager("freeSchedules");
-        caffeineCacheManager.setCaffeine(caffeine);
+    public CacheManager cacheManager(CacheProperties cacheProperties, List<CacheReloader> cacheReloaders) {
+        Map<String, CacheReloader> reloaders = cacheReloaders.stream()
+                .collect(Collectors.toMap(CacheReloader::cacheName, Function.identity()));
+
+        var caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCaffeine(caffeine(new CacheProperties.CacheSpec()));
+        cacheProperties.getCaches().forEach((name, spec) -> {
+            var caffeine = caffeine(spec);
+            var reloader = reloaders.get(name);
+            if (reloader != null) {
+                caffeine.scheduler(Scheduler.systemScheduler())
+                        .evictionListener((key, value, cause) -> reloader.evicted(key));
+            }
+            if (spec.getRefreshAfterWrite() != null && reloader != null) {
+                caffeine.refreshAfterWrite(spec.getRefreshAfterWrite());
+                caffeineCacheManager.registerCustomCache(name, caffeine.build(reloader::reload));
+            } else {
+                caffeineCacheManager.registerCustomCache(name, caffeine.build());
+            }
+        });
         return caffeineCacheManager;
     }
+
+    private static Caffeine<Object, Object> caffeine(CacheProperties.CacheSpec spec) {
+        var caffeine = Caffeine.newBuilder()
+                .maximumWeight(spec.getMaximumWeight())
+                .weigher(ELEMENT_WEIGHER)
+                .expireAfterWrite(spec.getExpireAfterWrite());
+        if (spec.isRecordStats()) {
+            caffeine.recordStats();
+        }
+        return caffeine;
+    }
 }
@@ -0,0 +1,141 @@
+package org.example.bookingsystemapp.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Records how many SQL statements and entity loads each HTTP request caused on its request thread, tagged with the
+ * method and the matched URI pattern. Outside production the counts are also returned in the
+ * {@code X-Query-Count} / {@code X-Entity-Load-Count} headers, and a statement repeated within one request at least
+ * {@code repeated-statement-threshold} times is reported as a likely N+1.
+ */
+@Slf4j
+@Configuration
+public class QueryCountConfig {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String ENTITY_LOAD_COUNT_HEADER = "X-Entity-Load-Count";
+    static final String QUERIES = "bookingapp.http.queries";
+    static final String ENTITY_LOADS = "bookingapp.http.entity-loads";
+    static final String REPEATED_STATEMENTS = "bookingapp.http.repeated-statements";
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        var queryCounter = new QueryCounter();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounter);
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(new Integrator() {
+                @Override
+                public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                    sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+                            .appendListeners(EventType.POST_LOAD, queryCounter);
+                }
+
+                @Override
+                public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+                }
+            }));
+        };
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(MeterRegistry meterRegistry,
+                                             @Value("${bookingapp.query-count.response-headers:false}") boolean responseHeaders,
+                                             @Value("${bookingapp.query-count.repeated-statement-threshold:0}") int repeatedStatementThreshold) {
+        return new QueryCountFilter(meterRegistry, responseHeaders, repeatedStatementThreshold);
+    }
+
+    public static class QueryCountFilter extends OncePerRequestFilter {
+
+        private final MeterRegistry meterRegistry;
+        private final boolean responseHeaders;
+        private final int repeatedStatementThreshold;
+
+        QueryCountFilter(MeterRegistry meterRegistry, boolean responseHeaders, int repeatedStatementThreshold) {
+            this.meterRegistry = meterRegistry;
+            this.responseHeaders = responseHeaders;
+            this.repeatedStatementThreshold = repeatedStatementThreshold;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            QueryCounter.start(repeatedStatementThreshold > 0);
+            try {
+                filterChain.doFilter(request, responseHeaders ? new CountHeadersResponse(response) : response);
+            } finally {
+                if (responseHeaders && !response.isCommitted()) {
+                    writeCountHeaders(response);
+                }
+                record(request);
+            }
+        }
+
+        private void record(HttpServletRequest request) {
+            var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            var uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            summary(QUERIES, "SQL statements issued per HTTP request", request.getMethod(), uri)
+                    .record(QueryCounter.statements());
+            summary(ENTITY_LOADS, "Entities loaded per HTTP request", request.getMethod(), uri)
+                    .record(QueryCounter.entityLoads());
+
+            if (repeatedStatementThreshold > 0) {
+                QueryCounter.repeatedStatements(repeatedStatementThreshold).forEach((sql, times) -> {
+                    meterRegistry.counter(REPEATED_STATEMENTS, "method", request.getMethod(), "uri", uri).increment();
+                    log.warn("Possible N+1 in {} {}: the same statement ran {} times: {}", request.getMethod(), uri, times, sql);
+                });
+            }
+        }
+
+        private DistributionSummary summary(String name, String description, String method, String uri) {
+            return DistributionSummary.builder(name)
+                    .description(description)
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+        }
+
+        private static void writeCountHeaders(HttpServletResponse response) {
+            response.setHeader(QUERY_COUNT_HEADER, String.valueOf(QueryCounter.statements()));
+            response.setHeader(ENTITY_LOAD_COUNT_HEADER, String.valueOf(QueryCounter.entityLoads()));
+        }
+    }
+
+    private static final class CountHeadersResponse extends OnCommittedResponseWrapper {
+
+        CountHeadersResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            QueryCountFilter.writeCountHeaders((HttpServletResponse) getResponse());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.bookingsystemapp.config;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares and the entities it loads on the current thread. When statement
+ * tracking is switched on, identical statements are counted per SQL text so repeated lookups (N+1) can be reported.
+ * Statements sent through {@code JdbcTemplate} bypass Hibernate and are not counted.
+ */
+public class QueryCounter implements StatementInspector, PostLoadEventListener {
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    @Override
+    public String inspect(String sql) {
+        var counts = COUNTS.get();
+        counts.statements++;
+        if (counts.statementTexts != null) {
+            counts.statementTexts.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        COUNTS.get().entityLoads++;
+    }
+
+    public static void start(boolean trackStatements) {
+        var counts = COUNTS.get();
+        counts.statements = 0;
+        counts.entityLoads = 0;
+        counts.statementTexts = trackStatements ? new HashMap<>() : null;
+    }
+
+    public static long statements() {
+        return COUNTS.get().statements;
+    }
+
+    public static long entityLoads() {
+        return COUNTS.get().entityLoads;
+    }
+
+    /**
+     * Statements executed at least {@code minimum} times since {@link #start(boolean)} with tracking switched on.
+     */
+    public static Map<String, Integer> repeatedStatements(int minimum) {
+        var repeated = new LinkedHashMap<String, Integer>();
+        var statementTexts = COUNTS.get().statementTexts;
+        if (statementTexts != null) {
+            statementTexts.forEach((sql, times) -> {
+                if (times >= minimum) {
+                    repeated.put(sql, times);
+                }
+            });
+        }
+        return repeated;
+    }
+
+    private static final class Counts {
+        private long statements;
+        private long entityLoads;
+        private Map<String, Integer> statementTexts;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.bookingsystemapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactiveConfig {
+
+    /**
+     * Bounded pool for the blocking JPA reads behind reactive cache misses. Disposed with the context.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler scheduleReadScheduler(@Value("${bookingapp.reactive.max-threads:32}") int maxThreads,
+                                           @Value("${bookingapp.reactive.max-queued:10000}") int maxQueued) {
+        return Schedulers.newBoundedElastic(maxThreads, maxQueued, "schedule-reads");
+    }
+}
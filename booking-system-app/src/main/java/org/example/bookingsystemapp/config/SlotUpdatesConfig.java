@@ -0,0 +1,70 @@
+package org.example.bookingsystemapp.config;
+
+import org.example.bookingsystemapp.security.StompAuthenticationInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
+
+/**
+ * STOMP over WebSocket at {@code /ws/slots} for pushed slot updates. The in-memory broker fans a message out on a
+ * single thread, which keeps per-topic order, and only queues it for each subscriber; writes to the sockets run on the
+ * outbound pool. A client that falls behind by more than {@code send-time-limit} or {@code send-buffer-size-limit}
+ * is disconnected instead of holding up the others. Handshakes are accepted from the application's own origin, plus any
+ * origin patterns listed in {@code allowed-origins}.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class SlotUpdatesConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+    private final String[] allowedOrigins;
+    private final Duration sendTimeLimit;
+    private final int sendBufferSizeLimit;
+    private final int outboundThreads;
+
+    public SlotUpdatesConfig(StompAuthenticationInterceptor stompAuthenticationInterceptor,
+                             @Value("${bookingapp.slot-updates.allowed-origins:}") String[] allowedOrigins,
+                             @Value("${bookingapp.slot-updates.send-time-limit:5s}") Duration sendTimeLimit,
+                             @Value("${bookingapp.slot-updates.send-buffer-size-limit:262144}") int sendBufferSizeLimit,
+                             @Value("${bookingapp.slot-updates.outbound-threads:8}") int outboundThreads) {
+        this.stompAuthenticationInterceptor = stompAuthenticationInterceptor;
+        this.allowedOrigins = allowedOrigins;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.outboundThreads = outboundThreads;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws/slots").setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.configureBrokerChannel().taskExecutor().corePoolSize(1).maxPoolSize(1);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor().corePoolSize(outboundThreads).maxPoolSize(outboundThreads);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.bookingsystemapp.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@NoArgsConstructor
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "booking_outbox")
+public class BookingOutbox extends BaseEntity {
+
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    @Column(length = 100)
+    private String messageKey;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+}
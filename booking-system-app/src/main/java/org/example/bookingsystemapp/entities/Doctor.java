@@ -25,6 +25,7 @@ public class Doctor extends User {
 
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL)
     @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<DoctorSchedule> doctorSchedule = new ArrayList<>();
 
 }
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 import java.time.LocalDate;
@@ -14,15 +15,22 @@ import java.time.LocalTime;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "doctor_schedule")
+@Table(name = "doctor_schedule", indexes = {
+        @Index(name = "idx_doctor_schedule_day_start_booked", columnList = "day, start_time, booked"),
+        @Index(name = "idx_doctor_schedule_doctor_day_start", columnList = "doctor_id, day, start_time")
+})
 public class DoctorSchedule extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "doctor_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Doctor doctor;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Patient patient;
 
     private LocalDate day;
@@ -0,0 +1,47 @@
+package org.example.bookingsystemapp.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Archived copy of a {@link DoctorSchedule} row of a past day. The id is the one the slot had in
+ * {@code doctor_schedule}; doctor and patient are kept as plain ids, so deleting users never touches history.
+ */
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "doctor_schedule_history", indexes = {
+        @Index(name = "idx_doctor_schedule_history_doctor_day", columnList = "doctor_id, day")
+})
+public class DoctorScheduleHistory {
+
+    @Id
+    private Long id;
+
+    private Integer version;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    private LocalDate day;
+
+    private LocalTime startTime;
+
+    private boolean booked;
+}
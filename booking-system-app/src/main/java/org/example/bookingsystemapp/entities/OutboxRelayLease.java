@@ -0,0 +1,30 @@
+package org.example.bookingsystemapp.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lets one instance at a time drain the booking outbox. The holder renews the lease before every batch;
+ * another instance takes it over once {@code lockedUntil} has passed.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "outbox_relay_lease")
+public class OutboxRelayLease {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 100)
+    private String lockedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+}
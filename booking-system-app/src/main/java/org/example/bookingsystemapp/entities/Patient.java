@@ -20,6 +20,7 @@ public class Patient extends User {
 
     @OneToMany(mappedBy = "patient", cascade = CascadeType.PERSIST)
     @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<DoctorSchedule> doctorSchedule = new ArrayList<>();
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,170 @@
+package org.example.bookingsystemapp.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookingsystemapp.entities.BookingOutbox;
+import org.example.bookingsystemapp.entities.OutboxRelayLease;
+import org.example.bookingsystemapp.model.BookingConfirmationDTO;
+import org.example.bookingsystemapp.repositories.BookingOutboxRepository;
+import org.example.bookingsystemapp.repositories.OutboxRelayLeaseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the booking outbox to Kafka in id order. Rows are deleted only after the broker acknowledged them,
+ * so a crash between send and delete re-publishes the batch (at-least-once). After a failed send only the
+ * acknowledged prefix is deleted; the failed row and everything after it are re-sent in order by the next poll,
+ * so no doctor's confirmations overtake an earlier one. Only the instance holding the {@link OutboxRelayLease}
+ * relays, which keeps that order across instances; it renews the lease before every batch, and another instance
+ * takes over once a lease has not been renewed for {@code bookingapp.outbox.lease}. The lease must outlast a batch,
+ * so it has to be longer than {@code bookingapp.outbox.send-timeout}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bookingapp.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingOutboxRelay {
+
+    private static final String LEASE = "booking-outbox";
+
+    private final BookingOutboxRepository bookingOutboxRepository;
+    private final OutboxRelayLeaseRepository outboxRelayLeaseRepository;
+    private final KafkaTemplate<String, BookingConfirmationDTO> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter sent;
+    private final Counter failed;
+    private final Timer sendSucceeded;
+    private final Timer sendFailed;
+
+    public BookingOutboxRelay(BookingOutboxRepository bookingOutboxRepository,
+                              OutboxRelayLeaseRepository outboxRelayLeaseRepository,
+                              KafkaTemplate<String, BookingConfirmationDTO> kafkaTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${bookingapp.outbox.batch-size:200}") int batchSize,
+                              @Value("${bookingapp.outbox.send-timeout:10s}") Duration sendTimeout,
+                              @Value("${bookingapp.outbox.lease:30s}") Duration lease) {
+        this.bookingOutboxRepository = bookingOutboxRepository;
+        this.outboxRelayLeaseRepository = outboxRelayLeaseRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.lease = lease;
+        Gauge.builder("bookingapp.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox rows waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("bookingapp.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest unpublished outbox row")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.sent = Counter.builder("bookingapp.outbox.sent").register(meterRegistry);
+        this.failed = Counter.builder("bookingapp.outbox.failed").register(meterRegistry);
+        this.sendSucceeded = sendTimer(meterRegistry, "success");
+        this.sendFailed = sendTimer(meterRegistry, "failure");
+    }
+
+    @Scheduled(fixedDelayString = "${bookingapp.outbox.poll-interval-ms:500}")
+    public void relay() {
+        List<BookingOutbox> batch;
+        do {
+            if (!holdLease()) {
+                break;
+            }
+            batch = bookingOutboxRepository.findByOrderByIdAsc(Limit.of(batchSize));
+        } while (!batch.isEmpty() && publish(batch) && batch.size() == batchSize);
+        updateLag();
+    }
+
+    private boolean holdLease() {
+        var now = LocalDateTime.now();
+        if (outboxRelayLeaseRepository.renew(LEASE, owner, now, now.plus(lease)) == 1) {
+            return true;
+        }
+        if (outboxRelayLeaseRepository.existsById(LEASE)) {
+            return false;
+        }
+        try {
+            return outboxRelayLeaseRepository.create(LEASE, owner, now.plus(lease)) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private boolean publish(List<BookingOutbox> batch) {
+        var futures = new ArrayList<CompletableFuture<SendResult<String, BookingConfirmationDTO>>>(batch.size());
+        for (BookingOutbox row : batch) {
+            try {
+                var message = objectMapper.readValue(row.getPayload(), BookingConfirmationDTO.class);
+                long start = System.nanoTime();
+                futures.add(kafkaTemplate.send(row.getTopic(), row.getMessageKey(), message)
+                        .whenComplete((result, e) -> (e == null ? sendSucceeded : sendFailed)
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS)));
+            } catch (JsonProcessingException e) {
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        var delivered = new ArrayList<Long>(batch.size());
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered.add(batch.get(i).getId());
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox message {} not published, retrying it and {} later ones: {}",
+                        batch.get(i).getId(), batch.size() - i - 1, e.getMessage());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        bookingOutboxRepository.deleteAllByIdInBatch(delivered);
+        sent.increment(delivered.size());
+        failed.increment(batch.size() - delivered.size());
+        return delivered.size() == batch.size();
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("bookingapp.kafka.send")
+                .description("Time from kafkaTemplate.send until the broker acknowledged or rejected the record")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private void updateLag() {
+        pending.set(bookingOutboxRepository.count());
+        LocalDateTime oldest = bookingOutboxRepository.findOldestCreatedAt();
+        lagMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+}
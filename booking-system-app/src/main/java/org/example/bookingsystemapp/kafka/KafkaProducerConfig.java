@@ -1,5 +1,6 @@
 package org.example.bookingsystemapp.kafka;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.example.bookingsystemapp.model.BookingConfirmationDTO;
@@ -8,6 +9,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -19,18 +21,40 @@ public class KafkaProducerConfig {
     @Value(value = "${spring.kafka.bootstrap-servers}")
     private String bootstrapAddress;
 
+    @Value(value = "${bookingapp.kafka.producer.linger-ms:20}")
+    private int lingerMs;
+
+    @Value(value = "${bookingapp.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value(value = "${bookingapp.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value(value = "${bookingapp.kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence;
+
+    @Value(value = "${bookingapp.kafka.producer.acks:all}")
+    private String acks;
+
     @Bean
-    public ProducerFactory<String, BookingConfirmationDTO> producerFactory() {
-        Map<String, Object> configProps =  Map.of
-                (ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress,
+    public ProducerFactory<String, BookingConfirmationDTO> producerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> configProps = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress,
                 ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
-                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
+                ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG, batchSize,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence,
+                ProducerConfig.ACKS_CONFIG, acks);
+        var factory = new DefaultKafkaProducerFactory<String, BookingConfirmationDTO>(configProps);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, BookingConfirmationDTO> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, BookingConfirmationDTO> kafkaTemplate(ProducerFactory<String, BookingConfirmationDTO> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
 }
@@ -16,6 +16,12 @@ public class KafkaTopicConfig {
     @Value(value = "${spring.kafka.bootstrap-servers}")
     private String bootstrapAddress;
 
+    @Value(value = "${bookingapp.kafka.booking-topic.partitions:6}")
+    private int bookingTopicPartitions;
+
+    @Value(value = "${bookingapp.kafka.booking-topic.replicas:1}")
+    private short bookingTopicReplicas;
+
     @Bean
     public KafkaAdmin kafkaAdmin() {
         Map<String, Object> configs = Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
@@ -24,6 +30,6 @@ public class KafkaTopicConfig {
 
     @Bean
     public NewTopic bookingTopic() {
-        return new NewTopic("booking", 1, (short) 1);
+        return new NewTopic("booking", bookingTopicPartitions, bookingTopicReplicas);
     }
 }
@@ -6,6 +6,11 @@ import org.example.bookingsystemapp.entities.DoctorSchedule;
 import org.example.bookingsystemapp.entities.Patient;
 import org.example.bookingsystemapp.model.BookingDTO;
 import org.example.bookingsystemapp.model.DoctorScheduleSingleDTO;
+import org.example.bookingsystemapp.model.FreeSchedulesOfDoctorDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReturnDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReturnTempDTO;
+import org.example.bookingsystemapp.model.ScheduleSlotTempDTO;
+import org.example.bookingsystemapp.model.ScheduleTempDTO;
 import org.example.bookingsystemapp.model.SingleTerminDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -28,10 +33,16 @@ public abstract class SchedulesMapper {
     @Mapping(source = "patient", target = "patientId", qualifiedByName = "mapPatientToPatientId")
     public abstract DoctorScheduleSingleDTO toDoctorScheduleDTO(DoctorSchedule doctorSchedule);
 
+    public abstract DoctorScheduleSingleDTO toDoctorScheduleDTO(ScheduleTempDTO scheduleTempDTO);
+
     @Mapping(source = "doctor", target = "doctorId", qualifiedByName = "mapDoctorToDoctorId")
     @Mapping(source = "patient", target = "patientId", qualifiedByName = "mapPatientToPatientId")
     public abstract BookingDTO toBookingDTO(DoctorSchedule doctorSchedule);
 
+    public abstract ScheduleCriteriaReturnDTO toScheduleCriteriaReturnDTO(ScheduleCriteriaReturnTempDTO scheduleCriteriaReturnTempDTO);
+
+    public abstract FreeSchedulesOfDoctorDTO toFreeSchedulesOfDoctorDTO(ScheduleSlotTempDTO scheduleSlotTempDTO, Long doctorId);
+
     @Named("mapDoctorToDoctorId")
     public static Long mapDoctorToDoctorId(Doctor doctor) {
         return doctor != null ? doctor.getId() : null;
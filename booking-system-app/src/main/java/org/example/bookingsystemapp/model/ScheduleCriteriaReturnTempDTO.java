@@ -10,6 +10,7 @@ import java.time.LocalTime;
 @Data
 @AllArgsConstructor
 public class ScheduleCriteriaReturnTempDTO {
+    private Long scheduleId;
     private Long doctorId;
     private String doctorLastName;
     private Specialisation specialisation;
@@ -0,0 +1,16 @@
+package org.example.bookingsystemapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+public class ScheduleSlotTempDTO {
+    private Long scheduleId;
+    private LocalDate day;
+    private LocalTime startTime;
+    private boolean booked;
+}
@@ -0,0 +1,22 @@
+package org.example.bookingsystemapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+public class ScheduleTempDTO {
+    private Long id;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Integer version;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDate day;
+    private LocalTime startTime;
+    private boolean booked;
+}
@@ -0,0 +1,29 @@
+package org.example.bookingsystemapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Slot availability change pushed to STOMP subscribers. {@code RELOAD} carries no schedule:
+ * the doctor's slots of that day changed in bulk and should be fetched again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotUpdateDTO {
+
+    public enum Type {
+        FREED, BOOKED, REMOVED, RELOAD
+    }
+
+    private Type type;
+    private Long doctorId;
+    private String specialisation;
+    private Long scheduleId;
+    private LocalDate day;
+    private LocalTime startTime;
+}
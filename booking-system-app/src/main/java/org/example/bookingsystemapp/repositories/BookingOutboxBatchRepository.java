@@ -0,0 +1,9 @@
+package org.example.bookingsystemapp.repositories;
+
+import org.example.bookingsystemapp.entities.BookingOutbox;
+
+import java.util.List;
+
+public interface BookingOutboxBatchRepository {
+    int insertOutbox(List<BookingOutbox> messages);
+}
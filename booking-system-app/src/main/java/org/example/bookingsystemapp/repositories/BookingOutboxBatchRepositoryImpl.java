@@ -0,0 +1,38 @@
+package org.example.bookingsystemapp.repositories;
+
+import org.example.bookingsystemapp.entities.BookingOutbox;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingOutboxBatchRepositoryImpl implements BookingOutboxBatchRepository {
+
+    private static final String INSERT_OUTBOX = """
+            INSERT INTO booking_outbox (version, topic, message_key, payload, created_at, updated_at)
+            VALUES (0, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingOutboxBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertOutbox(List<BookingOutbox> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX, messages, messages.size(), (ps, message) -> {
+            ps.setString(1, message.getTopic());
+            ps.setString(2, message.getMessageKey());
+            ps.setString(3, message.getPayload());
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+        return messages.size();
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.bookingsystemapp.repositories;
+
+import org.example.bookingsystemapp.entities.BookingOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingOutboxRepository extends JpaRepository<BookingOutbox, Long>, BookingOutboxBatchRepository {
+
+    List<BookingOutbox> findByOrderByIdAsc(Limit limit);
+
+    @Query("SELECT MIN(o.createdAt) FROM BookingOutbox o")
+    LocalDateTime findOldestCreatedAt();
+}
@@ -0,0 +1,24 @@
+package org.example.bookingsystemapp.repositories;
+
+import org.example.bookingsystemapp.entities.DoctorScheduleHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DoctorScheduleHistoryRepository extends JpaRepository<DoctorScheduleHistory, Long> {
+
+    @Modifying
+    @Query("""
+            INSERT INTO DoctorScheduleHistory (id, version, createdAt, updatedAt, archivedAt, doctorId, patientId, day, startTime, booked)
+            SELECT s.id, s.version, s.createdAt, s.updatedAt, :archivedAt, d.id, p.id, s.day, s.startTime, s.booked
+            FROM DoctorSchedule s
+            JOIN s.doctor d
+            LEFT JOIN s.patient p
+            WHERE s.id IN :scheduleIds
+            """)
+    int copySchedules(@Param("scheduleIds") List<Long> scheduleIds, @Param("archivedAt") LocalDateTime archivedAt);
+}
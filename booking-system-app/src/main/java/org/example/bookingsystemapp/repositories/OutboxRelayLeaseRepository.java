@@ -0,0 +1,39 @@
+package org.example.bookingsystemapp.repositories;
+
+import org.example.bookingsystemapp.entities.OutboxRelayLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface OutboxRelayLeaseRepository extends JpaRepository<OutboxRelayLease, String> {
+
+    /**
+     * Extends the lease when the owner already holds it or it has expired; returns the number of rows updated.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE OutboxRelayLease l
+            SET l.lockedBy = :owner,
+                l.lockedUntil = :lockedUntil
+            WHERE l.name = :name
+              AND (l.lockedBy = :owner OR l.lockedUntil < :now)
+            """)
+    int renew(@Param("name") String name, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Creates the lease row; fails with a constraint violation when another instance created it first.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            INSERT INTO OutboxRelayLease (name, lockedBy, lockedUntil)
+            VALUES (:name, :owner, :lockedUntil)
+            """)
+    int create(@Param("name") String name, @Param("owner") String owner, @Param("lockedUntil") LocalDateTime lockedUntil);
+}
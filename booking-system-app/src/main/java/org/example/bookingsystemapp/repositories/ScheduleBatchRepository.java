@@ -0,0 +1,9 @@
+package org.example.bookingsystemapp.repositories;
+
+import org.example.bookingsystemapp.model.SingleTerminDTO;
+
+import java.util.List;
+
+public interface ScheduleBatchRepository {
+    int insertSchedules(Long doctorId, List<SingleTerminDTO> termins);
+}
@@ -0,0 +1,42 @@
+package org.example.bookingsystemapp.repositories;
+
+import org.example.bookingsystemapp.model.SingleTerminDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ScheduleBatchRepositoryImpl implements ScheduleBatchRepository {
+
+    private static final String INSERT_SCHEDULE = """
+            INSERT INTO doctor_schedule (version, day, start_time, booked, doctor_id, created_at, updated_at)
+            VALUES (0, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ScheduleBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                       @Value("${bookingapp.schedule.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int insertSchedules(Long doctorId, List<SingleTerminDTO> termins) {
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SCHEDULE, termins, batchSize, (ps, termin) -> {
+            ps.setDate(1, Date.valueOf(termin.getDay()));
+            ps.setTime(2, Time.valueOf(termin.getStartTime()));
+            ps.setBoolean(3, Boolean.TRUE.equals(termin.getBooked()));
+            ps.setLong(4, doctorId);
+            ps.setTimestamp(5, now);
+            ps.setTimestamp(6, now);
+        });
+        return termins.size();
+    }
+}
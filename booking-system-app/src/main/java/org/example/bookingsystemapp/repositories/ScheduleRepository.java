@@ -1,31 +1,63 @@
 package org.example.bookingsystemapp.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.entities.Patient;
+import org.example.bookingsystemapp.model.ScheduleSlotTempDTO;
+import org.example.bookingsystemapp.model.ScheduleTempDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ScheduleRepository extends JpaRepository<DoctorSchedule, Long>, SchedulesCriteriaRepository {
+public interface ScheduleRepository extends JpaRepository<DoctorSchedule, Long>, SchedulesCriteriaRepository, ScheduleBatchRepository {
 
     @Query("""
-            SELECT s FROM DoctorSchedule s
+            SELECT new org.example.bookingsystemapp.model.ScheduleSlotTempDTO(s.id, s.day, s.startTime, s.booked)
+            FROM DoctorSchedule s
             WHERE s.doctor.id = :doctorId
             AND s.booked = false
+            AND s.day >= :fromDay
             """)
-    List<DoctorSchedule> findFreeSchedulesOfDoctorByDoctorId(@Param("doctorId") Long doctorId);
+    List<ScheduleSlotTempDTO> findFreeSchedulesOfDoctorByDoctorId(@Param("doctorId") Long doctorId, @Param("fromDay") LocalDate fromDay);
 
     @Query("""
-            SELECT d.lastName FROM DoctorSchedule ds
-            JOIN ds.doctor d
-            WHERE ds.id = :scheduleId
+            SELECT new org.example.bookingsystemapp.model.ScheduleTempDTO(
+                s.id, s.createdAt, s.updatedAt, s.version, s.doctor.id, p.id, s.day, s.startTime, s.booked)
+            FROM DoctorSchedule s
+            LEFT JOIN s.patient p
+            WHERE s.id = :scheduleId
             """)
-    String findDoctorLastName(@Param("scheduleId") Long scheduleId);
+    Optional<ScheduleTempDTO> findScheduleById(@Param("scheduleId") Long scheduleId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query("""
+            SELECT new org.example.bookingsystemapp.model.ScheduleSlotTempDTO(s.id, s.day, s.startTime, s.booked)
+            FROM DoctorSchedule s
+            WHERE s.doctor.id = :doctorId
+            """)
+    List<ScheduleSlotTempDTO> findSlotsOfDoctor(@Param("doctorId") Long doctorId);
+
+    @Query("""
+            SELECT new org.example.bookingsystemapp.model.ScheduleSlotTempDTO(s.id, s.day, s.startTime, s.booked)
+            FROM DoctorSchedule s
+            WHERE s.doctor.id = :doctorId
+            AND s.day BETWEEN :startDay AND :endDay
+            """)
+    List<ScheduleSlotTempDTO> findSlotsOfDoctorBetween(@Param("doctorId") Long doctorId,
+                                                       @Param("startDay") LocalDate startDay,
+                                                       @Param("endDay") LocalDate endDay);
 
     @Query("""
             SELECT COUNT(s) FROM DoctorSchedule s
@@ -38,4 +70,45 @@ public interface ScheduleRepository extends JpaRepository<DoctorSchedule, Long>,
                         @Param("startTime") LocalTime startTime,
                         @Param("day") LocalDate day,
                         @Param("scheduleId") Long scheduleId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE DoctorSchedule s
+            SET s.booked = true,
+                s.patient = :patient,
+                s.version = s.version + 1,
+                s.updatedAt = :updatedAt
+            WHERE s.id = :scheduleId
+            AND s.booked = false
+            """)
+    int bookIfFree(@Param("scheduleId") Long scheduleId,
+                   @Param("patient") Patient patient,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE DoctorSchedule s
+            SET s.booked = true,
+                s.patient = :patient,
+                s.version = s.version + 1,
+                s.updatedAt = :updatedAt
+            WHERE s.id IN :scheduleIds
+            AND s.booked = false
+            """)
+    int bookAllIfFree(@Param("scheduleIds") List<Long> scheduleIds,
+                      @Param("patient") Patient patient,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT s FROM DoctorSchedule s JOIN FETCH s.doctor WHERE s.id IN :scheduleIds ORDER BY s.day, s.startTime, s.id")
+    List<DoctorSchedule> findAllWithDoctorByIdIn(@Param("scheduleIds") List<Long> scheduleIds);
+
+    long countByIdIn(List<Long> scheduleIds);
+
+    @Query("SELECT s.id FROM DoctorSchedule s WHERE s.day < :day")
+    List<Long> findIdsOfSchedulesBefore(@Param("day") LocalDate day, Limit limit);
+
+    @Query("SELECT DISTINCT s.doctor.id FROM DoctorSchedule s WHERE s.id IN :scheduleIds")
+    List<Long> findDoctorIdsOfSchedules(@Param("scheduleIds") List<Long> scheduleIds);
 }
@@ -7,6 +7,7 @@ import org.example.bookingsystemapp.model.ScheduleCriteriaReturnTempDTO;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface SchedulesCriteriaRepository {
     List<ScheduleCriteriaReturnTempDTO> findSchedulesByCriteria(
@@ -14,6 +15,23 @@ public interface SchedulesCriteriaRepository {
             LocalDate endDay,
             LocalTime startTime,
             LocalTime endTime,
-            Specialisation specialisation
+            Specialisation specialisation,
+            LocalDate afterDay,
+            LocalTime afterStartTime,
+            Long afterScheduleId,
+            int limit
+    );
+
+    /**
+     * Scrolls the criteria query forward only. The fetch size goes to this statement alone: on MySQL,
+     * {@link Integer#MIN_VALUE} makes Connector/J stream the rows one by one without server-side cursors.
+     */
+    Stream<ScheduleCriteriaReturnTempDTO> streamSchedulesByCriteria(
+            LocalDate startDay,
+            LocalDate endDay,
+            LocalTime startTime,
+            LocalTime endTime,
+            Specialisation specialisation,
+            int fetchSize
     );
 }
@@ -7,10 +7,12 @@ import org.example.bookingsystemapp.entities.Doctor;
 import org.example.bookingsystemapp.entities.DoctorSchedule;
 import org.example.bookingsystemapp.entities.Specialisation;
 import org.example.bookingsystemapp.model.ScheduleCriteriaReturnTempDTO;
+import org.hibernate.jpa.HibernateHints;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class SchedulesCriteriaRepositoryImpl implements SchedulesCriteriaRepository {
 
@@ -23,7 +25,43 @@ public class SchedulesCriteriaRepositoryImpl implements SchedulesCriteriaReposit
             LocalDate endDay,
             LocalTime startTime,
             LocalTime endTime,
-            Specialisation specialisation) {
+            Specialisation specialisation,
+            LocalDate afterDay,
+            LocalTime afterStartTime,
+            Long afterScheduleId,
+            int limit) {
+
+        return entityManager.createQuery(buildCriteriaQuery(startDay, endDay, startTime, endTime, specialisation,
+                        afterDay, afterStartTime, afterScheduleId))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ScheduleCriteriaReturnTempDTO> streamSchedulesByCriteria(
+            LocalDate startDay,
+            LocalDate endDay,
+            LocalTime startTime,
+            LocalTime endTime,
+            Specialisation specialisation,
+            int fetchSize) {
+
+        return entityManager.createQuery(buildCriteriaQuery(startDay, endDay, startTime, endTime, specialisation,
+                        null, null, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<ScheduleCriteriaReturnTempDTO> buildCriteriaQuery(
+            LocalDate startDay,
+            LocalDate endDay,
+            LocalTime startTime,
+            LocalTime endTime,
+            Specialisation specialisation,
+            LocalDate afterDay,
+            LocalTime afterStartTime,
+            Long afterScheduleId) {
 
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<ScheduleCriteriaReturnTempDTO> cq = cb.createQuery(ScheduleCriteriaReturnTempDTO.class);
@@ -49,8 +87,16 @@ public class SchedulesCriteriaRepositoryImpl implements SchedulesCriteriaReposit
         if (specialisation != null) {
             predicate = cb.and(predicate, cb.equal(joinDoctor.get("specialisation"), specialisation));
         }
+        if (afterDay != null && afterStartTime != null && afterScheduleId != null) {
+            predicate = cb.and(predicate, cb.or(
+                    cb.greaterThan(root.get("day"), afterDay),
+                    cb.and(cb.equal(root.get("day"), afterDay), cb.greaterThan(root.get("startTime"), afterStartTime)),
+                    cb.and(cb.equal(root.get("day"), afterDay), cb.equal(root.get("startTime"), afterStartTime),
+                            cb.greaterThan(root.get("id"), afterScheduleId))));
+        }
 
         cq.select(cb.construct(ScheduleCriteriaReturnTempDTO.class,
+                root.get("id"),
                 joinDoctor.get("id"),
                 joinDoctor.get("lastName"),
                 joinDoctor.get("specialisation"),
@@ -60,8 +106,8 @@ public class SchedulesCriteriaRepositoryImpl implements SchedulesCriteriaReposit
         ));
 
         cq.where(predicate);
-
-        return entityManager.createQuery(cq).getResultList();
+        cq.orderBy(cb.asc(root.get("day")), cb.asc(root.get("startTime")), cb.asc(root.get("id")));
+        return cq;
     }
 
 
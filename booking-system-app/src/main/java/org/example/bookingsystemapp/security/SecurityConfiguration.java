@@ -6,6 +6,7 @@ import org.keycloak.admin.client.KeycloakBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -14,6 +15,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -21,13 +23,16 @@ public class SecurityConfiguration {
 
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, Environment environment) throws Exception {
 
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers(onManagementPort(environment)).permitAll()
+                        .requestMatchers("/ws/slots").permitAll()
 
                         .requestMatchers(HttpMethod.POST, "/patient").hasRole("PATIENT")
                         .requestMatchers(HttpMethod.GET, "/patient").hasRole("DOCTOR")
@@ -40,12 +45,18 @@ public class SecurityConfiguration {
                         .requestMatchers(HttpMethod.DELETE, "/doctor").hasRole("DOCTOR")
 
                         .requestMatchers(HttpMethod.POST, "/schedule").hasRole("DOCTOR")
+                        .requestMatchers(HttpMethod.POST, "/schedule/recurring").hasRole("DOCTOR")
                         .requestMatchers(HttpMethod.POST, "/schedule/book").hasRole("PATIENT")
+                        .requestMatchers("/schedule/book/batch").hasRole("PATIENT")
+                        .requestMatchers("/schedule/hold").hasRole("PATIENT")
                         .requestMatchers(HttpMethod.GET, "/schedule").hasRole("PATIENT")
                         .requestMatchers(HttpMethod.PUT, "/schedule").hasRole("DOCTOR")
                         .requestMatchers(HttpMethod.DELETE, "/schedule").hasRole("DOCTOR")
                         .requestMatchers("/schedule/free/**").hasRole("PATIENT")
                         .requestMatchers("/schedule/criteria").hasRole("PATIENT")
+                        .requestMatchers(HttpMethod.POST, "/schedule/criteria/stream").hasRole("PATIENT")
+                        .requestMatchers(HttpMethod.GET, "/reactive/schedule/free/**").hasRole("PATIENT")
+                        .requestMatchers(HttpMethod.POST, "/reactive/schedule/criteria").hasRole("PATIENT")
 
                         .anyRequest().authenticated()
                 )
@@ -56,6 +67,15 @@ public class SecurityConfiguration {
         return http.build();
     }
 
+    /**
+     * Requests to the separate actuator port ({@code management.server.port}), which is reachable only inside the
+     * deployment network. Never matches when the actuator shares the application port.
+     */
+    private static RequestMatcher onManagementPort(Environment environment) {
+        return request -> Integer.valueOf(request.getLocalPort())
+                .equals(environment.getProperty("local.management.port", Integer.class));
+    }
+
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
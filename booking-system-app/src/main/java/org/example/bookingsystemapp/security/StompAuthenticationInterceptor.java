@@ -0,0 +1,71 @@
+package org.example.bookingsystemapp.security;
+
+import lombok.RequiredArgsConstructor;
+import org.example.bookingsystemapp.service.help.SlotUpdates;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Browsers cannot set headers on the WebSocket handshake, so the bearer token travels in the STOMP
+ * {@code CONNECT} frame instead. Only patients may connect, and only a session that completed an authenticated
+ * {@code CONNECT} may subscribe, to slot topics only.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtDecoder jwtDecoder;
+    private final JwtAuthenticationConverter jwtAuthenticationConverter;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        var accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            if (accessor.getUser() == null) {
+                throw new MessageDeliveryException("Subscribing requires an authenticated CONNECT");
+            }
+            var destination = accessor.getDestination();
+            if (destination == null || !destination.startsWith(SlotUpdates.DAY_TOPIC)) {
+                throw new MessageDeliveryException("Cannot subscribe to " + destination);
+            }
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            throw new MessageDeliveryException("Slot updates are read-only");
+        }
+        return message;
+    }
+
+    private Authentication authenticate(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            throw new MessageDeliveryException("Missing bearer token");
+        }
+        try {
+            var authentication = jwtAuthenticationConverter.convert(jwtDecoder.decode(authorization.substring(BEARER.length())));
+            if (authentication == null || authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .noneMatch("ROLE_PATIENT"::equals)) {
+                throw new MessageDeliveryException("Slot updates require the PATIENT role");
+            }
+            return authentication;
+        } catch (JwtException e) {
+            throw new MessageDeliveryException("Invalid bearer token: " + e.getMessage());
+        }
+    }
+}
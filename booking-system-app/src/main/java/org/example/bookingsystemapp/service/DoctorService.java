@@ -2,6 +2,7 @@ package org.example.bookingsystemapp.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
 import org.example.bookingsystemapp.entities.Specialisation;
 import org.example.bookingsystemapp.exception.MissingSpecialisationException;
 import org.example.bookingsystemapp.exception.NotFoundException;
@@ -11,6 +12,10 @@ import org.example.bookingsystemapp.model.DeleteReferenceDTO;
 import org.example.bookingsystemapp.model.DoctorCreateDTO;
 import org.example.bookingsystemapp.model.DoctorDTO;
 import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.service.help.AvailabilityVersions;
+import org.example.bookingsystemapp.service.help.FreeSchedulesCache;
+import org.example.bookingsystemapp.service.help.ScheduleCriteriaCache;
+import org.example.bookingsystemapp.service.help.SlotAvailabilityIndex;
 import org.springframework.stereotype.Service;
 
 
@@ -21,6 +26,10 @@ public class DoctorService {
 
     private final DoctorRepository doctorRepository;
     private final DoctorMapper doctorMapper;
+    private final FreeSchedulesCache freeSchedulesCache;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final AvailabilityVersions availabilityVersions;
+    private final ScheduleCriteriaCache scheduleCriteriaCache;
 
     public DoctorDTO createDoctor(DoctorCreateDTO doctorCreateDTO) {
         var doctor = doctorMapper.toDoctor(doctorCreateDTO);
@@ -61,11 +70,16 @@ public class DoctorService {
         if (doctorDTO.getBirthDate() != null) {
             doctor.setBirthDate(doctorDTO.getBirthDate());
         }
+        var oldSpecialisation = doctor.getSpecialisation();
         if (doctorDTO.getSpecialisation() != null) {
             doctor.setSpecialisation(Specialisation.valueOf(doctorDTO.getSpecialisation().toUpperCase()));
         }
 
         var updatedDoctor = doctorRepository.save(doctor);
+        scheduleCriteriaCache.specialisationChanged(oldSpecialisation);
+        if (updatedDoctor.getSpecialisation() != oldSpecialisation) {
+            scheduleCriteriaCache.specialisationChanged(updatedDoctor.getSpecialisation());
+        }
         return doctorMapper.toDoctorDTO(updatedDoctor);
     }
 
@@ -75,7 +89,11 @@ public class DoctorService {
         if (!deleteReferenceDTO.getVersion().equals(doctor.getVersion())) {
             throw new VersionMismatchException("Version mismatch for doctor with id " + deleteReferenceDTO.getId());
         }
+        availabilityVersions.schedulesRemoved(doctor.getDoctorSchedule().stream().map(DoctorSchedule::getId).toList());
         doctorRepository.deleteById(deleteReferenceDTO.getId());
+        freeSchedulesCache.invalidate(deleteReferenceDTO.getId());
+        slotAvailabilityIndex.invalidate(deleteReferenceDTO.getId());
+        scheduleCriteriaCache.specialisationChanged(doctor.getSpecialisation());
     }
 
 }
@@ -1,35 +1,70 @@
 package org.example.bookingsystemapp.service;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import org.example.bookingsystemapp.entities.BookingOutbox;
 import org.example.bookingsystemapp.entities.DoctorSchedule;
 import org.example.bookingsystemapp.entities.Patient;
 import org.example.bookingsystemapp.model.BookingConfirmationDTO;
-import org.example.bookingsystemapp.repositories.ScheduleRepository;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.example.bookingsystemapp.repositories.BookingOutboxRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+/**
+ * Confirmation messages are not sent to Kafka here: they are written to the outbox in the caller's
+ * transaction and published later by {@link org.example.bookingsystemapp.kafka.BookingOutboxRelay}.
+ * Messages are keyed by doctor id, so confirmations of one doctor stay ordered within their partition.
+ */
 @Service
 @AllArgsConstructor
 public class KafkaProducerService {
 
-    private final KafkaTemplate<String, BookingConfirmationDTO> kafkaTemplate;
-    private final ScheduleRepository scheduleRepository;
+    static final String BOOKING_TOPIC = "booking";
+
+    private final BookingOutboxRepository bookingOutboxRepository;
+    private final ObjectMapper objectMapper;
 
-    public void sendMessage(BookingConfirmationDTO bookingConfirmationDTO) {
-        kafkaTemplate.send("booking", bookingConfirmationDTO);
+    public void sendMessage(String key, BookingConfirmationDTO bookingConfirmationDTO) {
+        bookingOutboxRepository.save(toOutbox(key, bookingConfirmationDTO));
     }
 
     public void getScheduleData(DoctorSchedule doctorSchedule, Patient patient) {
+        sendMessage(String.valueOf(doctorSchedule.getDoctor().getId()), toConfirmation(doctorSchedule, patient));
+    }
+
+    /**
+     * Confirmations of several bookings of one patient, written to the outbox in a single JDBC batch.
+     */
+    public void getScheduleData(List<DoctorSchedule> doctorSchedules, Patient patient) {
+        bookingOutboxRepository.insertOutbox(doctorSchedules.stream()
+                .map(schedule -> toOutbox(String.valueOf(schedule.getDoctor().getId()), toConfirmation(schedule, patient)))
+                .toList());
+    }
+
+    private BookingOutbox toOutbox(String key, BookingConfirmationDTO bookingConfirmationDTO) {
+        try {
+            return BookingOutbox.builder()
+                    .topic(BOOKING_TOPIC)
+                    .messageKey(key)
+                    .payload(objectMapper.writeValueAsString(bookingConfirmationDTO))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize booking confirmation", e);
+        }
+    }
+
+    private static BookingConfirmationDTO toConfirmation(DoctorSchedule doctorSchedule, Patient patient) {
         var bookingConfirmationDTO = new BookingConfirmationDTO();
 
-        bookingConfirmationDTO.setDoctorName(scheduleRepository.findDoctorLastName(doctorSchedule.getId()));
+        bookingConfirmationDTO.setDoctorName(doctorSchedule.getDoctor().getLastName());
         bookingConfirmationDTO.setPatientEmail(patient.getEmail());
         bookingConfirmationDTO.setPhoneNumber(patient.getPhoneNumber());
         bookingConfirmationDTO.setConfirmationMethod(String.valueOf(patient.getConfirmationMethod()));
         bookingConfirmationDTO.setScheduleDay(doctorSchedule.getDay());
         bookingConfirmationDTO.setScheduleHour(doctorSchedule.getStartTime());
-
-        sendMessage(bookingConfirmationDTO);
+        return bookingConfirmationDTO;
     }
 }
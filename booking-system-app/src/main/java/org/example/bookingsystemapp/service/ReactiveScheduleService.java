@@ -0,0 +1,36 @@
+package org.example.bookingsystemapp.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.bookingsystemapp.model.FreeSchedulesOfDoctorDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReqDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReturnDTO;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+
+/**
+ * Non-blocking read facade over the availability data. Answers held in memory (the free-slot and criteria caches,
+ * the slot index of regular doctors) are emitted on the subscribing thread. Only a miss that has to read the database
+ * falls back to the blocking {@link SchedulesService} call on the bounded {@code schedule-reads} scheduler.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveScheduleService {
+
+    private final SchedulesService schedulesService;
+    private final Scheduler scheduleReadScheduler;
+
+    public Mono<List<FreeSchedulesOfDoctorDTO>> getFreeSchedulesOfDoctor(Long doctorId) {
+        return Mono.defer(() -> Mono.justOrEmpty(schedulesService.findCachedFreeSchedulesOfDoctor(doctorId)))
+                .switchIfEmpty(Mono.fromCallable(() -> schedulesService.getFreeSchedulesOfDoctor(doctorId))
+                        .subscribeOn(scheduleReadScheduler));
+    }
+
+    public Mono<List<ScheduleCriteriaReturnDTO>> getSchedulesByCriteria(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
+        return Mono.defer(() -> Mono.justOrEmpty(schedulesService.findCachedSchedulesByCriteria(scheduleCriteriaReqDTO)))
+                .switchIfEmpty(Mono.fromCallable(() -> schedulesService.getSchedulesByCriteria(scheduleCriteriaReqDTO))
+                        .subscribeOn(scheduleReadScheduler));
+    }
+}
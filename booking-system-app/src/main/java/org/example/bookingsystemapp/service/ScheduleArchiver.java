@@ -0,0 +1,96 @@
+package org.example.bookingsystemapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookingsystemapp.repositories.DoctorScheduleHistoryRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.service.help.AvailabilityVersions;
+import org.example.bookingsystemapp.service.help.FreeSchedulesCache;
+import org.example.bookingsystemapp.service.help.ScheduleCriteriaCache;
+import org.example.bookingsystemapp.service.help.SlotAvailabilityIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Moves slots of past days from {@code doctor_schedule} to {@code doctor_schedule_history}, so the hot table
+ * holds only today and the future. Rows move in chunks of {@code chunk-size}, one short transaction per chunk,
+ * and a run stops after {@code max-chunks} chunks; whatever is left is picked up by the next run.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bookingapp.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class ScheduleArchiver {
+
+    private final ScheduleRepository scheduleRepository;
+    private final DoctorScheduleHistoryRepository doctorScheduleHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final FreeSchedulesCache freeSchedulesCache;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final ScheduleCriteriaCache scheduleCriteriaCache;
+    private final AvailabilityVersions availabilityVersions;
+    private final int chunkSize;
+    private final int maxChunks;
+
+    public ScheduleArchiver(ScheduleRepository scheduleRepository,
+                            DoctorScheduleHistoryRepository doctorScheduleHistoryRepository,
+                            TransactionTemplate transactionTemplate,
+                            FreeSchedulesCache freeSchedulesCache,
+                            SlotAvailabilityIndex slotAvailabilityIndex,
+                            ScheduleCriteriaCache scheduleCriteriaCache,
+                            AvailabilityVersions availabilityVersions,
+                            @Value("${bookingapp.archive.chunk-size:1000}") int chunkSize,
+                            @Value("${bookingapp.archive.max-chunks:500}") int maxChunks) {
+        this.scheduleRepository = scheduleRepository;
+        this.doctorScheduleHistoryRepository = doctorScheduleHistoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.freeSchedulesCache = freeSchedulesCache;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.scheduleCriteriaCache = scheduleCriteriaCache;
+        this.availabilityVersions = availabilityVersions;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+    }
+
+    @Scheduled(cron = "${bookingapp.archive.cron:0 15 2 * * *}")
+    public void archive() {
+        archiveBefore(LocalDate.now());
+    }
+
+    public int archiveBefore(LocalDate day) {
+        int archived = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            Integer moved = transactionTemplate.execute(status -> moveChunk(day));
+            archived += moved;
+            if (moved < chunkSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            scheduleCriteriaCache.invalidateAll();
+            log.info("Archived {} schedules before {}", archived, day);
+        }
+        return archived;
+    }
+
+    private int moveChunk(LocalDate day) {
+        var scheduleIds = scheduleRepository.findIdsOfSchedulesBefore(day, Limit.of(chunkSize));
+        if (scheduleIds.isEmpty()) {
+            return 0;
+        }
+        var doctorIds = scheduleRepository.findDoctorIdsOfSchedules(scheduleIds);
+        doctorScheduleHistoryRepository.copySchedules(scheduleIds, LocalDateTime.now());
+        scheduleRepository.deleteAllByIdInBatch(scheduleIds);
+        availabilityVersions.schedulesRemoved(scheduleIds);
+        doctorIds.forEach(doctorId -> {
+            freeSchedulesCache.invalidate(doctorId);
+            slotAvailabilityIndex.invalidate(doctorId);
+        });
+        return scheduleIds.size();
+    }
+}
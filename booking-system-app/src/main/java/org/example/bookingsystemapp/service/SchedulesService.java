@@ -1,10 +1,11 @@
 package org.example.bookingsystemapp.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.example.bookingsystemapp.entities.DoctorSchedule;
 import org.example.bookingsystemapp.entities.Specialisation;
-import org.example.bookingsystemapp.exception.InvalidDataException;
 import org.example.bookingsystemapp.exception.NotAvailableException;
 import org.example.bookingsystemapp.exception.NotFoundException;
 import org.example.bookingsystemapp.exception.VersionMismatchException;
@@ -13,54 +14,123 @@ import org.example.bookingsystemapp.model.*;
 import org.example.bookingsystemapp.repositories.DoctorRepository;
 import org.example.bookingsystemapp.repositories.PatientRepository;
 import org.example.bookingsystemapp.repositories.ScheduleRepository;
-import org.example.bookingsystemapp.service.help.EvictCacheService;
+import org.example.bookingsystemapp.service.help.AvailabilityVersions;
+import org.example.bookingsystemapp.service.help.FreeSchedulesCache;
+import org.example.bookingsystemapp.service.help.ScheduleCriteriaCache;
 import org.example.bookingsystemapp.service.help.ScheduleValidator;
-import org.springframework.cache.annotation.Cacheable;
+import org.example.bookingsystemapp.service.help.SlotAvailabilityIndex;
+import org.example.bookingsystemapp.service.help.SlotHolds;
+import org.example.bookingsystemapp.service.help.SlotUpdates;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Transactional
 @Service
 @RequiredArgsConstructor
+@Timed(value = "bookingapp.schedules", percentiles = {0.5, 0.95, 0.99})
 public class SchedulesService {
 
+    static final String CONFLICTS = "bookingapp.schedule.conflicts";
+
     private final ScheduleRepository scheduleRepository;
     private final SchedulesMapper schedulesMapper;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final KafkaProducerService kafkaProducerService;
-    private final EvictCacheService evictCacheService;
+    private final FreeSchedulesCache freeSchedulesCache;
     private final ScheduleValidator scheduleValidator;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final ScheduleCriteriaCache scheduleCriteriaCache;
+    private final SlotHolds slotHolds;
+    private final SlotUpdates slotUpdates;
+    private final AvailabilityVersions availabilityVersions;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bookingapp.schedule.criteria.stream-fetch-size:500}")
+    private int streamFetchSize;
 
     public void addDoctorSchedule(DoctorScheduleDTO doctorScheduleDTO) {
         var doctor = doctorRepository.findById(doctorScheduleDTO.getDoctorId())
                 .orElseThrow(() -> new NotFoundException("Doctor not found with id " + doctorScheduleDTO.getDoctorId()));
 
-        var existingSchedules = scheduleRepository.findFreeSchedulesOfDoctorByDoctorId(doctorScheduleDTO.getDoctorId());
+        doctorScheduleDTO.getTermins().forEach(dto -> scheduleValidator.validateStartTimeOfSchedule(dto.getStartTime()));
+        scheduleValidator.validateNoConflicts(doctor.getId(), doctorScheduleDTO.getTermins());
 
         var schedules = doctorScheduleDTO.getTermins().stream()
                 .map(dto -> {
-                    scheduleValidator.validateStartTimeOfSchedule(dto.getStartTime());
-                    var exists = existingSchedules.stream()
-                            .anyMatch(schedule -> schedule.getStartTime().equals(dto.getStartTime()) && schedule.getDay().equals(dto.getDay()));
-                    if (exists) {
-                        throw new NotAvailableException("Doctor already has a schedule at %s on %s".formatted(dto.getStartTime(),dto.getDay()));
-                    }
-
                     var schedule = schedulesMapper.toDoctorSchedule(dto);
                     schedule.setDoctor(doctor);
                     return schedule;
                 })
                 .collect(Collectors.toList());
 
-        scheduleRepository.saveAll(schedules);
+        scheduleRepository.saveAll(schedules).forEach(schedule -> {
+            freeSchedulesCache.slotAdded(doctor.getId(), schedule.getDay(), schedule.getStartTime(), schedule.getId(), schedule.isBooked());
+            slotAvailabilityIndex.slotAdded(doctor.getId(), schedule.getDay(), schedule.getStartTime(), schedule.getId(), schedule.isBooked());
+            scheduleCriteriaCache.slotChanged(doctor.getSpecialisation(), schedule.getDay(), schedule.getStartTime());
+            slotUpdates.slotChanged(schedule.isBooked() ? SlotUpdateDTO.Type.BOOKED : SlotUpdateDTO.Type.FREED,
+                    doctor, schedule.getId(), schedule.getDay(), schedule.getStartTime());
+        });
+    }
+
+    public RecurringScheduleResultDTO addRecurringDoctorSchedules(RecurringScheduleDTO recurringScheduleDTO) {
+        var doctor = doctorRepository.findById(recurringScheduleDTO.getDoctorId())
+                .orElseThrow(() -> new NotFoundException("Doctor not found with id " + recurringScheduleDTO.getDoctorId()));
+
+        scheduleValidator.validateRecurringSchedule(recurringScheduleDTO);
+        var daysOfWeek = recurringScheduleDTO.getDaysOfWeek().stream()
+                .map(scheduleValidator::toDayOfWeek)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(DayOfWeek.class)));
+        var slotsPerDay = (Duration.between(recurringScheduleDTO.getStartTime(), recurringScheduleDTO.getEndTime()).toMinutes() + 29) / 30;
+        scheduleValidator.validateRecurringScheduleSize((long) recurringScheduleDTO.getWeeks() * daysOfWeek.size() * slotsPerDay);
+        var startDay = recurringScheduleDTO.getStartDay();
+        var endDay = startDay.plusWeeks(recurringScheduleDTO.getWeeks()).minusDays(1);
+
+        var taken = scheduleRepository.findSlotsOfDoctorBetween(doctor.getId(), startDay, endDay).stream()
+                .map(slot -> LocalDateTime.of(slot.getDay(), slot.getStartTime()))
+                .collect(Collectors.toSet());
+
+        var termins = new ArrayList<SingleTerminDTO>();
+        var conflicts = new ArrayList<SingleTerminDTO>();
+        for (var day = startDay; !day.isAfter(endDay); day = day.plusDays(1)) {
+            if (!daysOfWeek.contains(day.getDayOfWeek())) {
+                continue;
+            }
+            for (var time = recurringScheduleDTO.getStartTime(); time.isBefore(recurringScheduleDTO.getEndTime()); time = time.plusMinutes(30)) {
+                var termin = new SingleTerminDTO();
+                termin.setDay(day);
+                termin.setStartTime(time);
+                termin.setBooked(false);
+                (taken.contains(LocalDateTime.of(day, time)) ? conflicts : termins).add(termin);
+            }
+        }
+
+        var created = scheduleRepository.insertSchedules(doctor.getId(), termins);
+        freeSchedulesCache.invalidate(doctor.getId());
+        slotAvailabilityIndex.invalidate(doctor.getId());
+        scheduleCriteriaCache.daysChanged(doctor.getSpecialisation(), startDay, endDay);
+        slotUpdates.daysChanged(doctor, termins.stream().map(SingleTerminDTO::getDay).toList());
+
+        var result = new RecurringScheduleResultDTO();
+        result.setCreated(created);
+        result.setConflicts(conflicts);
+        return result;
     }
 
     public DoctorScheduleSingleDTO getScheduleById(Long id) {
-        var schedule = scheduleRepository.findById(id)
+        var schedule = scheduleRepository.findScheduleById(id)
                 .orElseThrow(() -> new NotFoundException("Schedule not found with id " + id));
 
         return schedulesMapper.toDoctorScheduleDTO(schedule);
@@ -71,6 +141,7 @@ public class SchedulesService {
                 .orElseThrow(() -> new NotFoundException("Schedule not found with id " + doctorScheduleSingleDTO.getId()));
 
         if (!doctorScheduleSingleDTO.getVersion().equals(schedule.getVersion())) {
+            countConflict("update", "version");
             throw new VersionMismatchException("Version mismatch for schedule with id " + doctorScheduleSingleDTO.getId());
         }
 
@@ -78,6 +149,9 @@ public class SchedulesService {
             throw new IllegalArgumentException("Cannot change the assigned doctor for this schedule entry");
         }
 
+        var oldDay = schedule.getDay();
+        var oldStartTime = schedule.getStartTime();
+
         if (schedule.isBooked() && Optional.ofNullable(doctorScheduleSingleDTO.getBooked()).orElse(false)) {
             schedule.setBooked(false);
             schedule.setPatient(null);
@@ -95,7 +169,18 @@ public class SchedulesService {
             }
         }
         var updatedSchedule = scheduleRepository.save(schedule);
-        evictCacheService.evictFreeSchedules(schedule.getDoctor().getId());
+        availabilityVersions.scheduleChanged(updatedSchedule);
+        freeSchedulesCache.slotAdded(schedule.getDoctor().getId(),
+                updatedSchedule.getDay(), updatedSchedule.getStartTime(), updatedSchedule.getId(), updatedSchedule.isBooked());
+        slotAvailabilityIndex.slotMoved(schedule.getDoctor().getId(), oldDay, oldStartTime,
+                updatedSchedule.getDay(), updatedSchedule.getStartTime(), updatedSchedule.getId(), updatedSchedule.isBooked());
+        scheduleCriteriaCache.slotChanged(schedule.getDoctor().getSpecialisation(), oldDay, oldStartTime);
+        scheduleCriteriaCache.slotChanged(schedule.getDoctor().getSpecialisation(), updatedSchedule.getDay(), updatedSchedule.getStartTime());
+        if (!oldDay.equals(updatedSchedule.getDay()) || !oldStartTime.equals(updatedSchedule.getStartTime())) {
+            slotUpdates.slotChanged(SlotUpdateDTO.Type.REMOVED, schedule.getDoctor(), schedule.getId(), oldDay, oldStartTime);
+        }
+        slotUpdates.slotChanged(updatedSchedule.isBooked() ? SlotUpdateDTO.Type.BOOKED : SlotUpdateDTO.Type.FREED,
+                schedule.getDoctor(), updatedSchedule.getId(), updatedSchedule.getDay(), updatedSchedule.getStartTime());
 
         return schedulesMapper.toDoctorScheduleDTO(updatedSchedule);
     }
@@ -105,84 +190,227 @@ public class SchedulesService {
                 .orElseThrow(() -> new NotFoundException("Schedule not found with id " + deleteReferenceDTO.getId()));
 
         if (!deleteReferenceDTO.getVersion().equals(schedule.getVersion())) {
+            countConflict("delete", "version");
             throw new VersionMismatchException("Version mismatch for schedule with id " + deleteReferenceDTO.getId());
         }
         scheduleRepository.deleteById(deleteReferenceDTO.getId());
+        availabilityVersions.schedulesRemoved(List.of(schedule.getId()));
+        freeSchedulesCache.slotRemoved(schedule.getDoctor().getId(), schedule.getId());
+        slotAvailabilityIndex.slotRemoved(schedule.getDoctor().getId(), schedule.getDay(), schedule.getStartTime(), schedule.getId());
+        scheduleCriteriaCache.slotChanged(schedule.getDoctor().getSpecialisation(), schedule.getDay(), schedule.getStartTime());
+        slotUpdates.slotChanged(SlotUpdateDTO.Type.REMOVED, schedule.getDoctor(), schedule.getId(), schedule.getDay(), schedule.getStartTime());
     }
 
 
     public BookingDTO createBooking(CreateBookingDTO createBookingDTO) {
+        if (!slotHolds.permits(createBookingDTO.getScheduleId(), createBookingDTO.getPatientId(), createBookingDTO.getHoldToken())) {
+            countConflict("book", "held");
+            throw new NotAvailableException("Schedule with id %s is held by another patient".formatted(createBookingDTO.getScheduleId()));
+        }
+
         var patient = patientRepository.findById(createBookingDTO.getPatientId())
                 .orElseThrow(() -> new NotFoundException("User not found with id " + createBookingDTO.getPatientId()));
 
+        var updated = scheduleRepository.bookIfFree(createBookingDTO.getScheduleId(), patient, LocalDateTime.now());
+
         var schedule = scheduleRepository.findById(createBookingDTO.getScheduleId())
                 .orElseThrow(() -> new NotFoundException("Schedule not found with id " + createBookingDTO.getScheduleId()));
 
-        if (schedule.isBooked()) {
+        if (updated == 0) {
+            countConflict("book", "taken");
             throw new NotAvailableException("Termin on %s at %s is already taken".formatted(schedule.getDay(), schedule.getStartTime()));
         }
-        schedule.setPatient(patient);
-        schedule.setBooked(true);
 
-        scheduleRepository.save(schedule);
-        evictCacheService.evictFreeSchedules(schedule.getDoctor().getId());
+        freeSchedulesCache.slotBooked(schedule.getDoctor().getId(), schedule.getId());
+        slotAvailabilityIndex.slotBooked(schedule.getDoctor().getId(), schedule.getDay(), schedule.getStartTime(), schedule.getId());
+        scheduleCriteriaCache.slotChanged(schedule.getDoctor().getSpecialisation(), schedule.getDay(), schedule.getStartTime());
+        slotHolds.slotBooked(schedule.getId());
+        availabilityVersions.scheduleChanged(schedule);
+        slotUpdates.slotBooked(schedule.getDoctor(), schedule.getId(), schedule.getDay(), schedule.getStartTime());
         kafkaProducerService.getScheduleData(schedule, patient);
 
         return schedulesMapper.toBookingDTO(schedule);
     }
 
-    public List<ScheduleCriteriaReturnDTO> getSchedulesByCriteria(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
-
-        if (scheduleCriteriaReqDTO.getStartDay().isAfter(scheduleCriteriaReqDTO.getEndDay())) {
-            throw new InvalidDataException("Start date cannot be later than end date");
+    public List<BookingDTO> createBatchBooking(CreateBatchBookingDTO createBatchBookingDTO) {
+        var scheduleIds = createBatchBookingDTO.getScheduleIds();
+        scheduleValidator.validateBatchBooking(scheduleIds);
+        var holdTokens = Optional.ofNullable(createBatchBookingDTO.getHoldTokens()).orElse(List.of());
+        var held = scheduleIds.stream()
+                .filter(id -> !slotHolds.permitsAny(id, createBatchBookingDTO.getPatientId(), holdTokens))
+                .toList();
+        if (!held.isEmpty()) {
+            countConflict("book-batch", "held");
+            throw new NotAvailableException("Schedules with ids %s are held by another patient".formatted(held));
         }
 
-        if (scheduleCriteriaReqDTO.getStartTime() != null && scheduleCriteriaReqDTO.getEndTime() != null) {
-            if (scheduleCriteriaReqDTO.getStartTime().isAfter(scheduleCriteriaReqDTO.getEndTime())) {
-                throw new InvalidDataException("Start time cannot be later than end time");
+        var patient = patientRepository.findById(createBatchBookingDTO.getPatientId())
+                .orElseThrow(() -> new NotFoundException("User not found with id " + createBatchBookingDTO.getPatientId()));
+
+        var updated = scheduleRepository.bookAllIfFree(scheduleIds, patient, LocalDateTime.now());
+        if (updated != scheduleIds.size()) {
+            if (scheduleRepository.countByIdIn(scheduleIds) != scheduleIds.size()) {
+                throw new NotFoundException("Some of schedules %s do not exist".formatted(scheduleIds));
             }
+            countConflict("book-batch", "taken");
+            throw new NotAvailableException("%s of schedules %s are already taken".formatted(scheduleIds.size() - updated, scheduleIds));
+        }
+
+        var schedules = scheduleRepository.findAllWithDoctorByIdIn(scheduleIds);
+        schedules.stream()
+                .collect(Collectors.groupingBy(schedule -> schedule.getDoctor().getId()))
+                .forEach((doctorId, booked) -> {
+                    var doctor = booked.get(0).getDoctor();
+                    freeSchedulesCache.slotsBooked(doctorId, booked.stream().map(DoctorSchedule::getId).toList());
+                    booked.forEach(schedule -> {
+                        slotAvailabilityIndex.slotBooked(doctorId, schedule.getDay(), schedule.getStartTime(), schedule.getId());
+                        slotUpdates.slotBooked(doctor, schedule.getId(), schedule.getDay(), schedule.getStartTime());
+                    });
+                    scheduleCriteriaCache.daysChanged(doctor.getSpecialisation(), booked.get(0).getDay(), booked.get(booked.size() - 1).getDay());
+                });
+        scheduleIds.forEach(slotHolds::slotBooked);
+        availabilityVersions.schedulesChanged(schedules);
+        kafkaProducerService.getScheduleData(schedules, patient);
+
+        return schedules.stream()
+                .map(schedulesMapper::toBookingDTO)
+                .toList();
+    }
+
+    public SlotHoldDTO holdSchedule(SlotHoldDTO slotHoldDTO) {
+        var schedule = scheduleRepository.findScheduleById(slotHoldDTO.getScheduleId())
+                .orElseThrow(() -> new NotFoundException("Schedule not found with id " + slotHoldDTO.getScheduleId()));
+        if (!patientRepository.existsById(slotHoldDTO.getPatientId())) {
+            throw new NotFoundException("User not found with id " + slotHoldDTO.getPatientId());
+        }
+        if (schedule.isBooked()) {
+            countConflict("hold", "taken");
+            throw new NotAvailableException("Termin on %s at %s is already taken".formatted(schedule.getDay(), schedule.getStartTime()));
         }
 
-        var schedules = scheduleRepository.findSchedulesByCriteria(
+        var hold = slotHolds.hold(schedule.getId(), schedule.getDoctorId(), slotHoldDTO.getPatientId())
+                .orElseThrow(() -> {
+                    countConflict("hold", "held");
+                    return new NotAvailableException("Termin on %s at %s is held by another patient".formatted(schedule.getDay(), schedule.getStartTime()));
+                });
+
+        return new SlotHoldDTO()
+                .scheduleId(hold.scheduleId())
+                .patientId(hold.patientId())
+                .holdToken(hold.token())
+                .expiresAt(LocalDateTime.ofInstant(hold.expiresAt(), ZoneId.systemDefault()));
+    }
+
+    public void releaseScheduleHold(SlotHoldDTO slotHoldDTO) {
+        slotHolds.release(slotHoldDTO.getScheduleId(), slotHoldDTO.getHoldToken());
+    }
+
+    public List<ScheduleCriteriaReturnDTO> getSchedulesByCriteria(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
+
+        var key = criteriaKey(scheduleCriteriaReqDTO);
+
+        return scheduleCriteriaCache.get(key, () -> scheduleRepository.findSchedulesByCriteria(
+                        key.startDay(),
+                        key.endDay(),
+                        key.startTime(),
+                        key.endTime(),
+                        key.specialisation(),
+                        key.afterDay(),
+                        key.afterStartTime(),
+                        key.afterScheduleId(),
+                        key.limit()
+                ).stream()
+                .map(schedulesMapper::toScheduleCriteriaReturnDTO)
+                .toList());
+    }
+
+    /**
+     * Cached criteria results only, without touching the database; empty on a cache miss.
+     */
+    public Optional<List<ScheduleCriteriaReturnDTO>> findCachedSchedulesByCriteria(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
+        return Optional.ofNullable(scheduleCriteriaCache.getIfPresent(criteriaKey(scheduleCriteriaReqDTO)));
+    }
+
+    private ScheduleCriteriaCache.CriteriaKey criteriaKey(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
+        scheduleValidator.validateCriteriaRange(scheduleCriteriaReqDTO);
+        var limit = scheduleValidator.validateCriteriaPage(scheduleCriteriaReqDTO);
+
+        return new ScheduleCriteriaCache.CriteriaKey(
+                Specialisation.valueOf(scheduleCriteriaReqDTO.getSpecialisation()),
                 scheduleCriteriaReqDTO.getStartDay(),
                 scheduleCriteriaReqDTO.getEndDay(),
                 scheduleCriteriaReqDTO.getStartTime(),
                 scheduleCriteriaReqDTO.getEndTime(),
-                Specialisation.valueOf(scheduleCriteriaReqDTO.getSpecialisation())
+                scheduleCriteriaReqDTO.getAfterDay(),
+                scheduleCriteriaReqDTO.getAfterStartTime(),
+                scheduleCriteriaReqDTO.getAfterScheduleId(),
+                limit
         );
+    }
 
-        return schedules.stream()
-                .map(temp -> {
-                    ScheduleCriteriaReturnDTO dto = new ScheduleCriteriaReturnDTO();
-                    dto.setDoctorId(temp.getDoctorId());
-                    dto.setDoctorLastName(temp.getDoctorLastName());
-                    if (temp.getSpecialisation() != null) {
-                        dto.setSpecialisation(String.valueOf(temp.getSpecialisation()));
-                    }
-                    dto.setDay(temp.getDay());
-                    dto.setStartTime(temp.getStartTime());
-                    dto.setBooked(temp.isBooked());
-                    return dto;
-                })
-                .toList();
+    public void validateSchedulesCriteria(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
+        scheduleValidator.validateCriteriaRange(scheduleCriteriaReqDTO);
+    }
+
+    public void streamSchedulesByCriteria(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO, Consumer<ScheduleCriteriaReturnDTO> consumer) {
+
+        scheduleValidator.validateCriteriaRange(scheduleCriteriaReqDTO);
+
+        try (var schedules = scheduleRepository.streamSchedulesByCriteria(
+                scheduleCriteriaReqDTO.getStartDay(),
+                scheduleCriteriaReqDTO.getEndDay(),
+                scheduleCriteriaReqDTO.getStartTime(),
+                scheduleCriteriaReqDTO.getEndTime(),
+                Specialisation.valueOf(scheduleCriteriaReqDTO.getSpecialisation()),
+                streamFetchSize)) {
+            schedules
+                    .map(schedulesMapper::toScheduleCriteriaReturnDTO)
+                    .forEach(consumer);
+        }
     }
 
-    @Cacheable(value = "freeSchedules", key = "#doctorId")
     public List<FreeSchedulesOfDoctorDTO> getFreeSchedulesOfDoctor(Long doctorId) {
-        var doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new NotFoundException("Doctor not found with id " + doctorId));
+        return slotHolds.withoutHeld(freeSchedulesCache.get(doctorId, this::loadFreeSchedulesOfDoctor));
+    }
+
+    /**
+     * Free schedules answered from memory only: the free-slot cache, or the slot index of a regular doctor.
+     * Empty when the database would have to be read.
+     */
+    public Optional<List<FreeSchedulesOfDoctorDTO>> findCachedFreeSchedulesOfDoctor(Long doctorId) {
+        var free = freeSchedulesCache.getIfPresent(doctorId);
+        if (free == null) {
+            var slots = slotAvailabilityIndex.getIfPresent(doctorId);
+            if (slots == null || !slots.isRegular()) {
+                return Optional.empty();
+            }
+            free = freeSchedulesCache.get(doctorId, id -> toFreeSchedulesOfDoctor(id, slots.freeSlots(LocalDate.now())));
+        }
+        return Optional.of(slotHolds.withoutHeld(free));
+    }
+
+    public List<FreeSchedulesOfDoctorDTO> loadFreeSchedulesOfDoctor(Long doctorId) {
+        var slots = slotAvailabilityIndex.get(doctorId);
+        if (slots == null) {
+            throw new NotFoundException("Doctor not found with id " + doctorId);
+        }
 
-        var doctorSchedulesList = scheduleRepository.findFreeSchedulesOfDoctorByDoctorId(doctor.getId());
+        var today = LocalDate.now();
+        var freeSlots = slots.isRegular()
+                ? slots.freeSlots(today)
+                : scheduleRepository.findFreeSchedulesOfDoctorByDoctorId(doctorId, today);
 
-        return doctorSchedulesList.stream()
-                .map(temp -> {
-                    FreeSchedulesOfDoctorDTO dto = new FreeSchedulesOfDoctorDTO();
-                    dto.setDoctorId(doctorId);
-                    dto.setDay(temp.getDay());
-                    dto.setStartTime(temp.getStartTime());
-                    dto.setScheduleId(temp.getId());
-                    return dto;
-                }).toList();
+        return toFreeSchedulesOfDoctor(doctorId, freeSlots);
     }
 
+    private List<FreeSchedulesOfDoctorDTO> toFreeSchedulesOfDoctor(Long doctorId, List<ScheduleSlotTempDTO> freeSlots) {
+        return freeSlots.stream()
+                .map(temp -> schedulesMapper.toFreeSchedulesOfDoctorDTO(temp, doctorId))
+                .sorted(FreeSchedulesCache.ORDER)
+                .toList();
+    }
+
+    private void countConflict(String operation, String reason) {
+        meterRegistry.counter(CONFLICTS, "operation", operation, "reason", reason).increment();
+    }
 }
@@ -0,0 +1,135 @@
+package org.example.bookingsystemapp.service.help;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ETag;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Strong ETags of the polled reads, answerable without touching the database.
+ * <ul>
+ *     <li>Free schedules of a doctor: a per-doctor counter bumped after every committed change of the list, and when
+ *     a refresh finds the list changed or it leaves the cache, since another instance may have changed it; the current day because the list starts today, and the earliest pending hold expiry, so the tag moves the
+ *     moment a hold lapses rather than when it is purged.</li>
+ *     <li>A single schedule: its {@code BaseEntity.version}. The highest version seen is remembered per schedule;
+ *     writers record theirs after commit and deletions record a tombstone, so a read that raced a commit can never
+ *     lower it. Writes through another instance are not seen here, so versions expire like the other availability
+ *     caches and the next read reloads them.</li>
+ * </ul>
+ * Both embed the start time of this process, so tags issued before a restart never match.
+ */
+@Service
+public class AvailabilityVersions {
+
+    private static final int REMOVED = Integer.MAX_VALUE;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentHashMap<Long, Long> doctorVersions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ConcurrentSkipListSet<Instant>> holdExpiries = new ConcurrentHashMap<>();
+    private final Cache<Long, Integer> scheduleVersions;
+
+    public AvailabilityVersions(@Value("${bookingapp.etag.schedule-versions.maximum-size:100000}") long maximumScheduleVersions,
+                                @Value("${bookingapp.etag.schedule-versions.expire-after-write:3m}") Duration expireAfterWrite) {
+        this.scheduleVersions = Caffeine.newBuilder()
+                .maximumSize(maximumScheduleVersions)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Must be read before the list it describes, so a change landing in between yields an older tag, never a newer one.
+     */
+    public String freeSchedulesETag(Long doctorId) {
+        var expiries = holdExpiries.get(doctorId);
+        var nextExpiry = expiries == null ? null : expiries.higher(Instant.now());
+        return quoted("%s-%s-%s-%s-%s".formatted(epoch, doctorId, doctorVersions.getOrDefault(doctorId, 0L), LocalDate.now().toEpochDay(),
+                nextExpiry == null ? "0" : Long.toString(nextExpiry.toEpochMilli(), 36)));
+    }
+
+    /**
+     * Called after commit, once the cached list already reflects the change.
+     */
+    public void freeSchedulesChanged(Long doctorId) {
+        doctorVersions.merge(doctorId, 1L, Long::sum);
+    }
+
+    /**
+     * A hold hides a slot until it expires. Released holds keep their expiry until purged, which at worst changes
+     * the tag once more than needed.
+     */
+    public void holdTaken(Long doctorId, Instant expiresAt) {
+        holdExpiries.compute(doctorId, (id, expiries) -> {
+            var pending = expiries == null ? new ConcurrentSkipListSet<Instant>() : expiries;
+            pending.add(expiresAt);
+            return pending;
+        });
+        freeSchedulesChanged(doctorId);
+    }
+
+    /**
+     * Forgets expiries up to {@code now}; they no longer affect tags read after it.
+     */
+    public void holdsExpired(Instant now) {
+        holdExpiries.keySet().forEach(doctorId -> holdExpiries.computeIfPresent(doctorId, (id, expiries) -> {
+            expiries.headSet(now, true).clear();
+            return expiries.isEmpty() ? null : expiries;
+        }));
+    }
+
+    /**
+     * ETag of the schedule if its version is known here, {@code null} otherwise.
+     */
+    public String scheduleETag(Long scheduleId) {
+        var version = scheduleVersions.getIfPresent(scheduleId);
+        return version == null || version == REMOVED ? null : scheduleETag(scheduleId, version);
+    }
+
+    public String scheduleLoaded(Long scheduleId, Integer version) {
+        record(scheduleId, version);
+        return scheduleETag(scheduleId, version);
+    }
+
+    public void scheduleChanged(DoctorSchedule schedule) {
+        AfterCommit.run(() -> record(schedule.getId(), schedule.getVersion()));
+    }
+
+    public void schedulesChanged(Collection<DoctorSchedule> schedules) {
+        AfterCommit.run(() -> schedules.forEach(schedule -> record(schedule.getId(), schedule.getVersion())));
+    }
+
+    public void schedulesRemoved(Collection<Long> scheduleIds) {
+        AfterCommit.run(() -> scheduleIds.forEach(scheduleId -> record(scheduleId, REMOVED)));
+    }
+
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        var current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, false));
+    }
+
+    private void record(Long scheduleId, Integer version) {
+        if (version != null) {
+            scheduleVersions.asMap().merge(scheduleId, version, Math::max);
+        }
+    }
+
+    private String scheduleETag(Long scheduleId, int version) {
+        return quoted("%s-%s-%s".formatted(epoch, scheduleId, version));
+    }
+
+    private static String quoted(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
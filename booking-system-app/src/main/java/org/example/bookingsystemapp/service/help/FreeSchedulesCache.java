@@ -0,0 +1,134 @@
+package org.example.bookingsystemapp.service.help;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.RequiredArgsConstructor;
+import org.example.bookingsystemapp.model.FreeSchedulesOfDoctorDTO;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the {@code freeSchedules} entries current by patching them after commit instead of evicting them.
+ * Cached lists are immutable and sorted by {@link #ORDER}; every patch publishes a new copy, so readers
+ * holding the previous list are never affected. Every change also bumps the doctor's {@link AvailabilityVersions}.
+ */
+@Service
+@RequiredArgsConstructor
+public class FreeSchedulesCache {
+
+    public static final String NAME = "freeSchedules";
+    public static final Comparator<FreeSchedulesOfDoctorDTO> ORDER = Comparator
+            .comparing(FreeSchedulesOfDoctorDTO::getDay)
+            .thenComparing(FreeSchedulesOfDoctorDTO::getStartTime)
+            .thenComparing(FreeSchedulesOfDoctorDTO::getScheduleId);
+
+    private final CacheManager cacheManager;
+    private final AvailabilityVersions availabilityVersions;
+
+    /**
+     * Cached free schedules of the doctor, loading them on a miss. Exceptions of the loader reach the caller
+     * unchanged and nothing is cached for them.
+     */
+    @SuppressWarnings("unchecked")
+    public List<FreeSchedulesOfDoctorDTO> get(Long doctorId, Function<Long, List<FreeSchedulesOfDoctorDTO>> loader) {
+        return (List<FreeSchedulesOfDoctorDTO>) nativeCache().get(doctorId, id -> loader.apply((Long) id));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<FreeSchedulesOfDoctorDTO> getIfPresent(Long doctorId) {
+        return (List<FreeSchedulesOfDoctorDTO>) nativeCache().getIfPresent(doctorId);
+    }
+
+    /**
+     * Installs a list recomputed by {@code refresh-after-write}. When it differs from the cached one, e.g. after a
+     * write by another instance, the doctor's version is bumped once the new list is in place.
+     */
+    public List<FreeSchedulesOfDoctorDTO> reloaded(Long doctorId, List<FreeSchedulesOfDoctorDTO> free) {
+        var entries = nativeCache().asMap();
+        var cached = entries.get(doctorId);
+        if (cached != null && !cached.equals(free)
+                && (free == null ? entries.remove(doctorId, cached) : entries.replace(doctorId, cached, free))) {
+            availabilityVersions.freeSchedulesChanged(doctorId);
+        }
+        return free;
+    }
+
+    public void slotAdded(Long doctorId, LocalDate day, LocalTime startTime, Long scheduleId, boolean booked) {
+        AfterCommit.run(() -> patch(doctorId, free -> booked
+                ? without(free, scheduleId)
+                : with(without(free, scheduleId), new FreeSchedulesOfDoctorDTO()
+                        .doctorId(doctorId)
+                        .scheduleId(scheduleId)
+                        .day(day)
+                        .startTime(startTime))));
+    }
+
+    public void slotBooked(Long doctorId, Long scheduleId) {
+        slotRemoved(doctorId, scheduleId);
+    }
+
+    public void slotsBooked(Long doctorId, Collection<Long> scheduleIds) {
+        AfterCommit.run(() -> patch(doctorId, free -> without(free, scheduleIds)));
+    }
+
+    public void slotRemoved(Long doctorId, Long scheduleId) {
+        AfterCommit.run(() -> patch(doctorId, free -> without(free, scheduleId)));
+    }
+
+    public void invalidate(Long doctorId) {
+        AfterCommit.run(() -> {
+            nativeCache().invalidate(doctorId);
+            availabilityVersions.freeSchedulesChanged(doctorId);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void patch(Long doctorId, UnaryOperator<List<FreeSchedulesOfDoctorDTO>> change) {
+        nativeCache().asMap().computeIfPresent(doctorId,
+                (id, free) -> change.apply((List<FreeSchedulesOfDoctorDTO>) free));
+        availabilityVersions.freeSchedulesChanged(doctorId);
+    }
+
+    private Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) cacheManager.getCache(NAME)).getNativeCache();
+    }
+
+    static List<FreeSchedulesOfDoctorDTO> with(List<FreeSchedulesOfDoctorDTO> free, FreeSchedulesOfDoctorDTO slot) {
+        int index = Collections.binarySearch(free, slot, ORDER);
+        if (index >= 0) {
+            return free;
+        }
+        var copy = new ArrayList<FreeSchedulesOfDoctorDTO>(free.size() + 1);
+        copy.addAll(free);
+        copy.add(-index - 1, slot);
+        return Collections.unmodifiableList(copy);
+    }
+
+    static List<FreeSchedulesOfDoctorDTO> without(List<FreeSchedulesOfDoctorDTO> free, Long scheduleId) {
+        for (int i = 0; i < free.size(); i++) {
+            if (free.get(i).getScheduleId().equals(scheduleId)) {
+                var copy = new ArrayList<>(free);
+                copy.remove(i);
+                return Collections.unmodifiableList(copy);
+            }
+        }
+        return free;
+    }
+
+    static List<FreeSchedulesOfDoctorDTO> without(List<FreeSchedulesOfDoctorDTO> free, Collection<Long> scheduleIds) {
+        var copy = free.stream()
+                .filter(slot -> !scheduleIds.contains(slot.getScheduleId()))
+                .toList();
+        return copy.size() == free.size() ? free : copy;
+    }
+}
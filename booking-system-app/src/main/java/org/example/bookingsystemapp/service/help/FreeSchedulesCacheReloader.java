@@ -0,0 +1,45 @@
+package org.example.bookingsystemapp.service.help;
+
+import lombok.RequiredArgsConstructor;
+import org.example.bookingsystemapp.config.CacheReloader;
+import org.example.bookingsystemapp.exception.NotFoundException;
+import org.example.bookingsystemapp.model.FreeSchedulesOfDoctorDTO;
+import org.example.bookingsystemapp.service.SchedulesService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class FreeSchedulesCacheReloader implements CacheReloader {
+
+    private final ObjectProvider<SchedulesService> schedulesService;
+    private final ObjectProvider<FreeSchedulesCache> freeSchedulesCache;
+    private final AvailabilityVersions availabilityVersions;
+
+    @Override
+    public String cacheName() {
+        return FreeSchedulesCache.NAME;
+    }
+
+    @Override
+    public Object reload(Object key) {
+        List<FreeSchedulesOfDoctorDTO> free;
+        try {
+            free = schedulesService.getObject().loadFreeSchedulesOfDoctor((Long) key);
+        } catch (NotFoundException e) {
+            free = null;
+        }
+        return freeSchedulesCache.getObject().reloaded((Long) key, free);
+    }
+
+    /**
+     * Conditional requests never read the cache, so a list changed by another instance would otherwise keep matching
+     * old tags; changing the tag makes them reload it at least once per {@code expire-after-write}.
+     */
+    @Override
+    public void evicted(Object key) {
+        availabilityVersions.freeSchedulesChanged((Long) key);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.bookingsystemapp.service.help;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.bookingsystemapp.entities.Specialisation;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReturnDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Results of {@code getSchedulesByCriteria} keyed by the normalized request. A schedule change only drops
+ * the entries of its specialisation whose day and hour window contains the changed slot. A per-specialisation
+ * generation counter keeps a result read before a commit from being cached after that commit's invalidation.
+ */
+@Service
+public class ScheduleCriteriaCache {
+
+    private final Cache<CriteriaKey, List<ScheduleCriteriaReturnDTO>> results;
+    private final Map<Specialisation, AtomicLong> generations = new EnumMap<>(Specialisation.class);
+
+    public ScheduleCriteriaCache(@Value("${bookingapp.criteria-cache.maximum-weight:100000}") long maximumWeight,
+                                 @Value("${bookingapp.criteria-cache.expire-after-write:1m}") Duration expireAfterWrite,
+                                 MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .<CriteriaKey, List<ScheduleCriteriaReturnDTO>>weigher((key, value) -> value.size() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        for (Specialisation specialisation : Specialisation.values()) {
+            generations.put(specialisation, new AtomicLong());
+        }
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "scheduleCriteria");
+    }
+
+    public List<ScheduleCriteriaReturnDTO> get(CriteriaKey key, Supplier<List<ScheduleCriteriaReturnDTO>> loader) {
+        var cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        var generation = generations.get(key.specialisation());
+        long before = generation.get();
+        var loaded = List.copyOf(loader.get());
+        if (generation.get() == before) {
+            results.put(key, loaded);
+            if (generation.get() != before) {
+                results.asMap().remove(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public List<ScheduleCriteriaReturnDTO> getIfPresent(CriteriaKey key) {
+        return results.getIfPresent(key);
+    }
+
+    public void slotChanged(Specialisation specialisation, LocalDate day, LocalTime startTime) {
+        AfterCommit.run(() -> invalidate(specialisation, key -> key.contains(day, startTime)));
+    }
+
+    public void daysChanged(Specialisation specialisation, LocalDate fromDay, LocalDate toDay) {
+        AfterCommit.run(() -> invalidate(specialisation, key -> key.overlaps(fromDay, toDay)));
+    }
+
+    public void specialisationChanged(Specialisation specialisation) {
+        AfterCommit.run(() -> invalidate(specialisation, key -> true));
+    }
+
+    public void invalidateAll() {
+        invalidate(null, key -> true);
+    }
+
+    private void invalidate(Specialisation specialisation, Predicate<CriteriaKey> affected) {
+        if (specialisation == null) {
+            generations.values().forEach(AtomicLong::incrementAndGet);
+            results.invalidateAll();
+            return;
+        }
+        generations.get(specialisation).incrementAndGet();
+        results.asMap().keySet().removeIf(key -> key.specialisation() == specialisation && affected.test(key));
+    }
+
+    public record CriteriaKey(Specialisation specialisation,
+                              LocalDate startDay,
+                              LocalDate endDay,
+                              LocalTime startTime,
+                              LocalTime endTime,
+                              LocalDate afterDay,
+                              LocalTime afterStartTime,
+                              Long afterScheduleId,
+                              int limit) {
+
+        boolean contains(LocalDate day, LocalTime time) {
+            return overlaps(day, day)
+                    && (time == null || startTime == null || !time.isBefore(startTime))
+                    && (time == null || endTime == null || !time.isAfter(endTime));
+        }
+
+        boolean overlaps(LocalDate fromDay, LocalDate toDay) {
+            return !toDay.isBefore(startDay) && !fromDay.isAfter(endDay);
+        }
+    }
+}
@@ -1,24 +1,54 @@
 package org.example.bookingsystemapp.service.help;
 
-import lombok.RequiredArgsConstructor;
 import org.example.bookingsystemapp.entities.DoctorSchedule;
 import org.example.bookingsystemapp.exception.InvalidDataException;
 import org.example.bookingsystemapp.exception.InvalidScheduleTime;
+import org.example.bookingsystemapp.exception.NotAvailableException;
+import org.example.bookingsystemapp.model.RecurringScheduleDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReqDTO;
+import org.example.bookingsystemapp.model.SingleTerminDTO;
 import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Optional.ofNullable;
 
 @Service
-@RequiredArgsConstructor
 public class ScheduleValidator {
 
     private final ScheduleRepository scheduleRepository;
-    private final static LocalTime OPENING_TIME = LocalTime.of(10, 0);
-    private final static LocalTime CLOSING_TIME = LocalTime.of(20, 0);
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final int maxRecurringSlots;
+    private final int defaultCriteriaLimit;
+    private final int maxCriteriaLimit;
+    private final int maxBatchBookingSlots;
+    final static LocalTime OPENING_TIME = LocalTime.of(10, 0);
+    final static LocalTime CLOSING_TIME = LocalTime.of(20, 0);
+
+    public ScheduleValidator(ScheduleRepository scheduleRepository,
+                             SlotAvailabilityIndex slotAvailabilityIndex,
+                             @Value("${bookingapp.schedule.recurring.max-slots:20000}") int maxRecurringSlots,
+                             @Value("${bookingapp.schedule.criteria.default-limit:500}") int defaultCriteriaLimit,
+                             @Value("${bookingapp.schedule.criteria.max-limit:2000}") int maxCriteriaLimit,
+                             @Value("${bookingapp.schedule.batch-booking.max-slots:20}") int maxBatchBookingSlots) {
+        this.scheduleRepository = scheduleRepository;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.maxRecurringSlots = maxRecurringSlots;
+        this.defaultCriteriaLimit = defaultCriteriaLimit;
+        this.maxCriteriaLimit = maxCriteriaLimit;
+        this.maxBatchBookingSlots = maxBatchBookingSlots;
+    }
 
     public void validateStartTimeAndDayOfSchedule(LocalTime startTime, LocalDate day, DoctorSchedule schedule) {
         if (startTime != null) {
@@ -41,11 +71,117 @@ public class ScheduleValidator {
     }
 
     public void validateIfScheduleAlreadyExists(Long doctorId, LocalTime startTime, LocalDate day, Long scheduleId) {
-        var amount = scheduleRepository.findByDoctorId(doctorId, startTime, day, scheduleId);
+        var slots = slotAvailabilityIndex.get(doctorId);
+        boolean exists;
+        if (slots != null && slots.isRegular()) {
+            exists = slots.hasOtherSchedule(day, startTime, scheduleId);
+        } else {
+            var amount = scheduleRepository.findByDoctorId(doctorId, startTime, day, scheduleId);
+            exists = amount != null && amount > 0;
+        }
 
-        if (amount != null && amount > 0) {
+        if (exists) {
             throw new InvalidDataException("Doctor already has a schedule at %s on %s".formatted( startTime,day));
         }
     }
 
+    /**
+     * Checks all termins with one projection query over their date range, including booked slots and
+     * duplicates within the request, and reports every conflict in a single exception.
+     */
+    public void validateNoConflicts(Long doctorId, List<SingleTerminDTO> termins) {
+        if (termins.isEmpty()) {
+            return;
+        }
+        var firstDay = termins.stream().map(SingleTerminDTO::getDay).min(Comparator.naturalOrder()).orElseThrow();
+        var lastDay = termins.stream().map(SingleTerminDTO::getDay).max(Comparator.naturalOrder()).orElseThrow();
+        var taken = scheduleRepository.findSlotsOfDoctorBetween(doctorId, firstDay, lastDay).stream()
+                .map(slot -> LocalDateTime.of(slot.getDay(), slot.getStartTime()))
+                .collect(Collectors.toCollection(HashSet::new));
+
+        var conflicts = termins.stream()
+                .filter(termin -> !taken.add(LocalDateTime.of(termin.getDay(), termin.getStartTime())))
+                .map(termin -> "%s on %s".formatted(termin.getStartTime(), termin.getDay()))
+                .toList();
+        if (conflicts.size() == 1) {
+            throw new NotAvailableException("Doctor already has a schedule at " + conflicts.get(0));
+        }
+        if (!conflicts.isEmpty()) {
+            throw new NotAvailableException("Doctor already has schedules at " + String.join(", ", conflicts));
+        }
+    }
+
+    public void validateRecurringSchedule(RecurringScheduleDTO recurringScheduleDTO) {
+        validateStartTimeOfSchedule(recurringScheduleDTO.getStartTime());
+        if (!recurringScheduleDTO.getEndTime().isAfter(recurringScheduleDTO.getStartTime())) {
+            throw new InvalidScheduleTime("End time must be later than start time");
+        }
+        if (recurringScheduleDTO.getEndTime().isAfter(CLOSING_TIME.plusMinutes(30))) {
+            throw new InvalidScheduleTime("Last schedule must start at 20:00 at the latest");
+        }
+        if (recurringScheduleDTO.getWeeks() < 1) {
+            throw new InvalidDataException("Recurring schedule must span at least one week");
+        }
+        if (recurringScheduleDTO.getDaysOfWeek().isEmpty()) {
+            throw new InvalidDataException("Recurring schedule must contain at least one day of week");
+        }
+    }
+
+    public void validateRecurringScheduleSize(long slots) {
+        if (slots > maxRecurringSlots) {
+            throw new InvalidDataException("Recurring schedule would generate %s slots, the limit is %s".formatted(slots, maxRecurringSlots));
+        }
+    }
+
+    public void validateBatchBooking(List<Long> scheduleIds) {
+        if (scheduleIds == null || scheduleIds.isEmpty()) {
+            throw new InvalidDataException("Batch booking must contain at least one schedule");
+        }
+        if (scheduleIds.size() > maxBatchBookingSlots) {
+            throw new InvalidDataException("Batch booking contains %s schedules, the limit is %s".formatted(scheduleIds.size(), maxBatchBookingSlots));
+        }
+        if (scheduleIds.stream().distinct().count() != scheduleIds.size()) {
+            throw new InvalidDataException("Batch booking contains the same schedule more than once");
+        }
+    }
+
+    public DayOfWeek toDayOfWeek(String dayOfWeek) {
+        try {
+            return DayOfWeek.valueOf(dayOfWeek.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Invalid day of week: " + dayOfWeek);
+        }
+    }
+
+    public void validateCriteriaRange(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
+        if (scheduleCriteriaReqDTO.getStartDay().isAfter(scheduleCriteriaReqDTO.getEndDay())) {
+            throw new InvalidDataException("Start date cannot be later than end date");
+        }
+
+        if (scheduleCriteriaReqDTO.getStartTime() != null && scheduleCriteriaReqDTO.getEndTime() != null) {
+            if (scheduleCriteriaReqDTO.getStartTime().isAfter(scheduleCriteriaReqDTO.getEndTime())) {
+                throw new InvalidDataException("Start time cannot be later than end time");
+            }
+        }
+    }
+
+    public int validateCriteriaPage(ScheduleCriteriaReqDTO scheduleCriteriaReqDTO) {
+        var cursorParts = Stream.of(
+                        scheduleCriteriaReqDTO.getAfterDay(),
+                        scheduleCriteriaReqDTO.getAfterStartTime(),
+                        scheduleCriteriaReqDTO.getAfterScheduleId())
+                .filter(Objects::nonNull)
+                .count();
+        if (cursorParts != 0 && cursorParts != 3) {
+            throw new InvalidDataException("Cursor requires afterDay, afterStartTime and afterScheduleId");
+        }
+        if (scheduleCriteriaReqDTO.getLimit() == null) {
+            return defaultCriteriaLimit;
+        }
+        if (scheduleCriteriaReqDTO.getLimit() < 1) {
+            throw new InvalidDataException("Limit must be greater than 0");
+        }
+        return Math.min(scheduleCriteriaReqDTO.getLimit(), maxCriteriaLimit);
+    }
+
 }
@@ -0,0 +1,214 @@
+package org.example.bookingsystemapp.service.help;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.bookingsystemapp.model.ScheduleSlotTempDTO;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process availability of doctor schedules. Opening hours give at most 21 half-hour starts a day,
+ * so every (doctor, day) pair is kept as two {@code long} bitmasks plus the schedule ids of the set bits.
+ * Doctors whose rows do not fit that grid (off-grid start times, duplicated starts) are marked irregular
+ * and callers fall back to the database for them.
+ */
+@Service
+public class SlotAvailabilityIndex {
+
+    static final int SLOT_MINUTES = 30;
+    static final int SLOTS_PER_DAY = (int) Duration.between(ScheduleValidator.OPENING_TIME, ScheduleValidator.CLOSING_TIME).toMinutes() / SLOT_MINUTES + 1;
+
+    private final DoctorRepository doctorRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final LoadingCache<Long, DoctorSlots> doctors;
+
+    public SlotAvailabilityIndex(DoctorRepository doctorRepository,
+                                 ScheduleRepository scheduleRepository,
+                                 @Value("${bookingapp.slot-index.maximum-doctors:10000}") long maximumDoctors,
+                                 @Value("${bookingapp.slot-index.expire-after-write:3m}") Duration expireAfterWrite,
+                                 MeterRegistry meterRegistry) {
+        this.doctorRepository = doctorRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.doctors = Caffeine.newBuilder()
+                .maximumSize(maximumDoctors)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, doctors, "slotAvailabilityIndex");
+    }
+
+    public DoctorSlots get(Long doctorId) {
+        return doctors.get(doctorId);
+    }
+
+    public DoctorSlots getIfPresent(Long doctorId) {
+        return doctors.getIfPresent(doctorId);
+    }
+
+    public void slotAdded(Long doctorId, LocalDate day, LocalTime startTime, Long scheduleId, boolean booked) {
+        AfterCommit.run(() -> patch(doctorId, slots -> slots.with(day, startTime, scheduleId, booked)));
+    }
+
+    public void slotBooked(Long doctorId, LocalDate day, LocalTime startTime, Long scheduleId) {
+        slotAdded(doctorId, day, startTime, scheduleId, true);
+    }
+
+    public void slotRemoved(Long doctorId, LocalDate day, LocalTime startTime, Long scheduleId) {
+        AfterCommit.run(() -> patch(doctorId, slots -> slots.without(day, startTime, scheduleId)));
+    }
+
+    public void slotMoved(Long doctorId, LocalDate oldDay, LocalTime oldStartTime,
+                          LocalDate day, LocalTime startTime, Long scheduleId, boolean booked) {
+        AfterCommit.run(() -> patch(doctorId, slots -> {
+            var removed = slots.without(oldDay, oldStartTime, scheduleId);
+            return removed == null ? null : removed.with(day, startTime, scheduleId, booked);
+        }));
+    }
+
+    public void invalidate(Long doctorId) {
+        AfterCommit.run(() -> doctors.invalidate(doctorId));
+    }
+
+    private void patch(Long doctorId, UnaryOperator<DoctorSlots> change) {
+        doctors.asMap().computeIfPresent(doctorId, (id, slots) -> slots.isRegular() ? change.apply(slots) : slots);
+    }
+
+    private DoctorSlots load(Long doctorId) {
+        if (!doctorRepository.existsById(doctorId)) {
+            return null;
+        }
+        var days = new TreeMap<LocalDate, DaySlots>();
+        for (ScheduleSlotTempDTO row : scheduleRepository.findSlotsOfDoctor(doctorId)) {
+            int slot = slotOf(row.getStartTime());
+            if (slot < 0 || row.getDay() == null) {
+                return DoctorSlots.IRREGULAR;
+            }
+            var daySlots = days.getOrDefault(row.getDay(), DaySlots.EMPTY);
+            long bit = 1L << slot;
+            if ((daySlots.present() & bit) != 0) {
+                return DoctorSlots.IRREGULAR;
+            }
+            var ids = daySlots == DaySlots.EMPTY ? new long[SLOTS_PER_DAY] : daySlots.ids();
+            ids[slot] = row.getScheduleId();
+            days.put(row.getDay(), new DaySlots(daySlots.present() | bit,
+                    row.isBooked() ? daySlots.booked() | bit : daySlots.booked(), ids));
+        }
+        return new DoctorSlots(true, Collections.unmodifiableNavigableMap(days));
+    }
+
+    static int slotOf(LocalTime startTime) {
+        if (startTime == null || startTime.isBefore(ScheduleValidator.OPENING_TIME)
+                || startTime.getSecond() != 0 || startTime.getNano() != 0) {
+            return -1;
+        }
+        long minutes = Duration.between(ScheduleValidator.OPENING_TIME, startTime).toMinutes();
+        if (minutes % SLOT_MINUTES != 0 || minutes / SLOT_MINUTES >= SLOTS_PER_DAY) {
+            return -1;
+        }
+        return (int) (minutes / SLOT_MINUTES);
+    }
+
+    static LocalTime startTimeOf(int slot) {
+        return ScheduleValidator.OPENING_TIME.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    public static final class DoctorSlots {
+
+        static final DoctorSlots IRREGULAR = new DoctorSlots(false, Collections.emptyNavigableMap());
+
+        private final boolean regular;
+        private final NavigableMap<LocalDate, DaySlots> days;
+
+        private DoctorSlots(boolean regular, NavigableMap<LocalDate, DaySlots> days) {
+            this.regular = regular;
+            this.days = days;
+        }
+
+        public boolean isRegular() {
+            return regular;
+        }
+
+        public List<ScheduleSlotTempDTO> freeSlots(LocalDate fromDay) {
+            var free = new ArrayList<ScheduleSlotTempDTO>();
+            for (Map.Entry<LocalDate, DaySlots> entry : days.tailMap(fromDay, true).entrySet()) {
+                var daySlots = entry.getValue();
+                long mask = daySlots.present() & ~daySlots.booked();
+                while (mask != 0) {
+                    int slot = Long.numberOfTrailingZeros(mask);
+                    free.add(new ScheduleSlotTempDTO(daySlots.ids()[slot], entry.getKey(), startTimeOf(slot), false));
+                    mask &= mask - 1;
+                }
+            }
+            return free;
+        }
+
+        public boolean hasOtherSchedule(LocalDate day, LocalTime startTime, Long scheduleId) {
+            int slot = slotOf(startTime);
+            var daySlots = day == null ? null : days.get(day);
+            if (slot < 0 || daySlots == null || (daySlots.present() & 1L << slot) == 0) {
+                return false;
+            }
+            return scheduleId == null || daySlots.ids()[slot] != scheduleId;
+        }
+
+        DoctorSlots with(LocalDate day, LocalTime startTime, Long scheduleId, boolean booked) {
+            int slot = slotOf(startTime);
+            if (slot < 0 || day == null) {
+                return null;
+            }
+            var daySlots = days.getOrDefault(day, DaySlots.EMPTY);
+            long bit = 1L << slot;
+            if ((daySlots.present() & bit) != 0 && daySlots.ids()[slot] != scheduleId) {
+                return null;
+            }
+            var ids = daySlots.ids().clone();
+            ids[slot] = scheduleId;
+            return withDay(day, new DaySlots(daySlots.present() | bit,
+                    booked ? daySlots.booked() | bit : daySlots.booked() & ~bit, ids));
+        }
+
+        DoctorSlots without(LocalDate day, LocalTime startTime, Long scheduleId) {
+            int slot = slotOf(startTime);
+            var daySlots = day == null ? null : days.get(day);
+            if (slot < 0 || daySlots == null || (daySlots.present() & 1L << slot) == 0) {
+                return this;
+            }
+            if (daySlots.ids()[slot] != scheduleId) {
+                return null;
+            }
+            long bit = 1L << slot;
+            var ids = daySlots.ids().clone();
+            ids[slot] = 0;
+            return withDay(day, new DaySlots(daySlots.present() & ~bit, daySlots.booked() & ~bit, ids));
+        }
+
+        private DoctorSlots withDay(LocalDate day, DaySlots daySlots) {
+            var copy = new TreeMap<>(days);
+            if (daySlots.present() == 0) {
+                copy.remove(day);
+            } else {
+                copy.put(day, daySlots);
+            }
+            return new DoctorSlots(true, Collections.unmodifiableNavigableMap(copy));
+        }
+    }
+
+    private record DaySlots(long present, long booked, long[] ids) {
+        static final DaySlots EMPTY = new DaySlots(0, 0, new long[SLOTS_PER_DAY]);
+    }
+}
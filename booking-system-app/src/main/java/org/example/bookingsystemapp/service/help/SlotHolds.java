@@ -0,0 +1,119 @@
+package org.example.bookingsystemapp.service.help;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.bookingsystemapp.model.FreeSchedulesOfDoctorDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived holds on schedules while a patient confirms a booking. Holds live only in this process, keyed by
+ * schedule id. Taking, renewing and releasing a hold is a compare-and-set on the map, so competing patients never
+ * reach the database; an expired hold is replaced by the next taker and leftovers are purged periodically.
+ */
+@Service
+public class SlotHolds {
+
+    public record Hold(Long scheduleId, Long doctorId, Long patientId, UUID token, Instant expiresAt) {
+
+        boolean isLive(Instant now) {
+            return expiresAt.isAfter(now);
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final AvailabilityVersions availabilityVersions;
+
+    public SlotHolds(@Value("${bookingapp.holds.ttl:60s}") Duration ttl,
+                     AvailabilityVersions availabilityVersions,
+                     MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.availabilityVersions = availabilityVersions;
+        Gauge.builder("bookingapp.slot.holds", holds, ConcurrentHashMap::size)
+                .description("Schedule holds kept in memory, including expired ones not purged yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Holds the schedule for the patient, or renews the patient's own hold with a new token.
+     * Empty when another patient holds it.
+     */
+    public Optional<Hold> hold(Long scheduleId, Long doctorId, Long patientId) {
+        var now = Instant.now();
+        var hold = new Hold(scheduleId, doctorId, patientId, UUID.randomUUID(), now.plus(ttl));
+        while (true) {
+            var current = holds.putIfAbsent(scheduleId, hold);
+            if (current != null && current.isLive(now) && !current.patientId().equals(patientId)) {
+                return Optional.empty();
+            }
+            if (current == null || holds.replace(scheduleId, current, hold)) {
+                availabilityVersions.holdTaken(doctorId, hold.expiresAt());
+                return Optional.of(hold);
+            }
+        }
+    }
+
+    /**
+     * Whether the patient may book the schedule: it is not held, its hold has expired, or the token is the live one.
+     */
+    public boolean permits(Long scheduleId, Long patientId, UUID token) {
+        return permitsAny(scheduleId, patientId, token == null ? List.of() : List.of(token));
+    }
+
+    public boolean permitsAny(Long scheduleId, Long patientId, Collection<UUID> tokens) {
+        var current = holds.get(scheduleId);
+        return current == null
+                || !current.isLive(Instant.now())
+                || current.patientId().equals(patientId) && tokens.contains(current.token());
+    }
+
+    public boolean release(Long scheduleId, UUID token) {
+        var current = holds.get(scheduleId);
+        if (current != null && current.token().equals(token) && holds.remove(scheduleId, current)) {
+            availabilityVersions.freeSchedulesChanged(current.doctorId());
+            return true;
+        }
+        return false;
+    }
+
+    public void slotBooked(Long scheduleId) {
+        AfterCommit.run(() -> holds.remove(scheduleId));
+    }
+
+    public List<FreeSchedulesOfDoctorDTO> withoutHeld(List<FreeSchedulesOfDoctorDTO> free) {
+        if (holds.isEmpty()) {
+            return free;
+        }
+        var now = Instant.now();
+        return free.stream()
+                .filter(slot -> {
+                    var hold = holds.get(slot.getScheduleId());
+                    return hold == null || !hold.isLive(now);
+                })
+                .toList();
+    }
+
+    /**
+     * Expired holds stop hiding their slots, and change the free-schedule ETags, at once; this only frees the memory.
+     */
+    @Scheduled(fixedDelayString = "${bookingapp.holds.purge-interval-ms:10000}")
+    public void purgeExpired() {
+        var now = Instant.now();
+        holds.values().forEach(hold -> {
+            if (!hold.isLive(now) && holds.remove(hold.scheduleId(), hold)) {
+                availabilityVersions.freeSchedulesChanged(hold.doctorId());
+            }
+        });
+        availabilityVersions.holdsExpired(now);
+    }
+}
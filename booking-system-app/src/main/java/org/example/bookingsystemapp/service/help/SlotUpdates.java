@@ -0,0 +1,55 @@
+package org.example.bookingsystemapp.service.help;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.model.SlotUpdateDTO;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+
+/**
+ * Pushes slot availability changes to STOMP subscribers after commit. Every change goes to
+ * {@code /topic/slots/doctor/{doctorId}} and to {@code /topic/slots/{specialisation}/{day}}.
+ * Publishing only hands the message to the broker; a failure is logged and never reaches the committed caller.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SlotUpdates {
+
+    public static final String DOCTOR_TOPIC = "/topic/slots/doctor/";
+    public static final String DAY_TOPIC = "/topic/slots/";
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    public void slotChanged(SlotUpdateDTO.Type type, Doctor doctor, Long scheduleId, LocalDate day, LocalTime startTime) {
+        var update = new SlotUpdateDTO(type, doctor.getId(), doctor.getSpecialisation().name(), scheduleId, day, startTime);
+        AfterCommit.run(() -> publish(update));
+    }
+
+    public void slotBooked(Doctor doctor, Long scheduleId, LocalDate day, LocalTime startTime) {
+        slotChanged(SlotUpdateDTO.Type.BOOKED, doctor, scheduleId, day, startTime);
+    }
+
+    public void daysChanged(Doctor doctor, Collection<LocalDate> days) {
+        var updates = days.stream()
+                .distinct()
+                .map(day -> new SlotUpdateDTO(SlotUpdateDTO.Type.RELOAD, doctor.getId(), doctor.getSpecialisation().name(), null, day, null))
+                .toList();
+        AfterCommit.run(() -> updates.forEach(this::publish));
+    }
+
+    private void publish(SlotUpdateDTO update) {
+        try {
+            messagingTemplate.convertAndSend(DOCTOR_TOPIC + update.getDoctorId(), update);
+            messagingTemplate.convertAndSend(DAY_TOPIC + update.getSpecialisation() + "/" + update.getDay(), update);
+        } catch (MessagingException e) {
+            log.warn("Cannot publish slot update {}", update, e);
+        }
+    }
+}
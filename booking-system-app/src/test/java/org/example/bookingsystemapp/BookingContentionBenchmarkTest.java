@@ -0,0 +1,127 @@
+package org.example.bookingsystemapp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.entities.Patient;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.PatientRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.service.KafkaProducerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@Slf4j
+@ActiveProfiles("test")
+@SpringBootTest
+public class BookingContentionBenchmarkTest {
+
+    private static final int SLOTS = 200;
+    private static final int CONTENDED_SLOTS = 20;
+    private static final int CONTENDERS = 8;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    TestEntityFactory testEntityFactory;
+
+    @MockitoBean
+    private KafkaProducerService kafkaProducerService;
+
+    @BeforeEach
+    void cleanUp() {
+        scheduleRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentBookersNeverDoubleBook() throws Exception {
+        List<Long> scheduleIds = createSchedules(CONTENDED_SLOTS);
+        Patient patient = testEntityFactory.createTestPatient();
+
+        assertThat(bookConcurrently(CONTENDERS, scheduleIds, patient).wins()).isEqualTo(CONTENDED_SLOTS);
+        assertThat(scheduleRepository.findAll().stream().allMatch(DoctorSchedule::isBooked)).isTrue();
+    }
+
+    @Tag("benchmark")
+    @ParameterizedTest
+    @ValueSource(ints = {1, 8, 64})
+    void testBookingsPerSecondUnderContention(int threads) throws Exception {
+        List<Long> scheduleIds = createSchedules(SLOTS);
+        Patient patient = testEntityFactory.createTestPatient();
+
+        Contention contention = bookConcurrently(threads, scheduleIds, patient);
+        log.info("Contention benchmark: threads={}, bookings/sec={}, attempts/sec={}",
+                threads, Math.round(contention.wins() / contention.seconds()), Math.round(contention.attempts() / contention.seconds()));
+
+        assertThat(contention.wins()).isEqualTo(SLOTS);
+        assertThat(contention.attempts()).isEqualTo(SLOTS * threads);
+    }
+
+    private List<Long> createSchedules(int slots) {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        List<Long> scheduleIds = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17).plusDays(i), LocalTime.of(14, 0), false);
+            scheduleIds.add(schedule.getId());
+        }
+        return scheduleIds;
+    }
+
+    private Contention bookConcurrently(int threads, List<Long> scheduleIds, Patient patient) throws Exception {
+        AtomicInteger wins = new AtomicInteger();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (Long scheduleId : scheduleIds) {
+                        attempts.incrementAndGet();
+                        wins.addAndGet(scheduleRepository.bookIfFree(scheduleId, patient, LocalDateTime.now()));
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return new Contention(wins.get(), attempts.get(), (System.nanoTime() - begin) / 1_000_000_000.0);
+        }
+    }
+
+    private record Contention(int wins, int attempts, double seconds) {
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.bookingsystemapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.bookingsystemapp.entities.BookingOutbox;
+import org.example.bookingsystemapp.kafka.BookingOutboxRelay;
+import org.example.bookingsystemapp.model.BookingConfirmationDTO;
+import org.example.bookingsystemapp.repositories.BookingOutboxRepository;
+import org.example.bookingsystemapp.repositories.OutboxRelayLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@SpringBootTest
+public class BookingOutboxRelayLeaseTest {
+
+    private static final int ROWS = 120;
+    private static final Duration LEASE = Duration.ofMillis(500);
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private OutboxRelayLeaseRepository outboxRelayLeaseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Queue<String> sent = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void cleanUp() {
+        bookingOutboxRepository.deleteAll();
+        outboxRelayLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void testTwoRelaysPublishEveryRowOnceInOrder() throws Exception {
+        insertRows(0, ROWS);
+        List<BookingOutboxRelay> relays = List.of(relay(), relay());
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (var executor = Executors.newFixedThreadPool(relays.size())) {
+            for (BookingOutboxRelay relay : relays) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 20 && bookingOutboxRepository.count() > 0; i++) {
+                        relay.relay();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(bookingOutboxRepository.count()).isZero();
+        assertThat(sent).containsExactlyElementsOf(emails(0, ROWS));
+    }
+
+    @Test
+    void testLeaseTakenOverAfterItExpires() throws Exception {
+        BookingOutboxRelay first = relay();
+        BookingOutboxRelay second = relay();
+        insertRows(0, 10);
+        first.relay();
+
+        insertRows(10, 20);
+        second.relay();
+        assertThat(bookingOutboxRepository.count()).isEqualTo(10L);
+
+        Thread.sleep(LEASE.toMillis() + 200);
+        second.relay();
+
+        assertThat(bookingOutboxRepository.count()).isZero();
+        assertThat(sent).containsExactlyElementsOf(emails(0, 20));
+    }
+
+    @SuppressWarnings("unchecked")
+    private BookingOutboxRelay relay() {
+        KafkaTemplate<String, BookingConfirmationDTO> template = mock(KafkaTemplate.class);
+        when(template.send(anyString(), anyString(), any(BookingConfirmationDTO.class))).thenAnswer(invocation -> {
+            sent.add(invocation.<BookingConfirmationDTO>getArgument(2).getPatientEmail());
+            return CompletableFuture.completedFuture(null);
+        });
+        return new BookingOutboxRelay(bookingOutboxRepository, outboxRelayLeaseRepository, template, objectMapper,
+                new SimpleMeterRegistry(), 25, Duration.ofSeconds(1), LEASE);
+    }
+
+    private void insertRows(int from, int to) throws Exception {
+        List<BookingOutbox> rows = new ArrayList<>();
+        for (String email : emails(from, to)) {
+            rows.add(BookingOutbox.builder()
+                    .topic("booking")
+                    .messageKey("7")
+                    .payload(objectMapper.writeValueAsString(BookingConfirmationDTO.builder().patientEmail(email).build()))
+                    .build());
+        }
+        bookingOutboxRepository.insertOutbox(rows);
+    }
+
+    private static List<String> emails(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "patient" + i + "@example.com").toList();
+    }
+}
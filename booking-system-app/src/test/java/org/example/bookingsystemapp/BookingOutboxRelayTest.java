@@ -0,0 +1,226 @@
+package org.example.bookingsystemapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.bookingsystemapp.entities.BookingOutbox;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.entities.Patient;
+import org.example.bookingsystemapp.entities.Specialisation;
+import org.example.bookingsystemapp.kafka.BookingOutboxRelay;
+import org.example.bookingsystemapp.model.BookingConfirmationDTO;
+import org.example.bookingsystemapp.model.CreateBatchBookingDTO;
+import org.example.bookingsystemapp.model.CreateBookingDTO;
+import org.example.bookingsystemapp.repositories.BookingOutboxRepository;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.OutboxRelayLeaseRepository;
+import org.example.bookingsystemapp.repositories.PatientRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.service.SchedulesService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@DirtiesContext
+@EmbeddedKafka(topics = "booking", partitions = 6)
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "bookingapp.outbox.relay.enabled=true",
+        "bookingapp.outbox.poll-interval-ms=100"
+})
+public class BookingOutboxRelayTest {
+
+    @Autowired
+    private SchedulesService schedulesService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    TestEntityFactory testEntityFactory;
+
+    private Consumer<String, String> consumer;
+
+    @BeforeEach
+    void cleanUp() {
+        bookingOutboxRepository.deleteAll();
+        scheduleRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+
+        var props = KafkaTestUtils.consumerProps("outbox-test", "false", embeddedKafkaBroker);
+        consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer()).createConsumer();
+        embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, "booking");
+        consumer.seekToEnd(consumer.assignment());
+        consumer.assignment().forEach(consumer::position);
+    }
+
+    @AfterEach
+    void closeConsumer() {
+        consumer.close();
+    }
+
+    @Test
+    void testBookingConfirmationsArePublishedOnce() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule first = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule second = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 18), LocalTime.of(14, 0), false);
+        long sentBefore = acknowledgedSends();
+
+        schedulesService.createBooking(bookingOf(first, patient));
+        schedulesService.createBooking(bookingOf(second, patient));
+
+        List<ConsumerRecord<String, String>> records = pollFor(Duration.ofSeconds(10), 2);
+        List<ConsumerRecord<String, String>> duplicates = pollFor(Duration.ofSeconds(2), Integer.MAX_VALUE);
+
+        assertThat(records).hasSize(2);
+        assertThat(records).extracting(ConsumerRecord::key)
+                .containsOnly(String.valueOf(doctor.getId()));
+        assertThat(records).allSatisfy(record -> assertThat(record.value()).contains(patient.getEmail()));
+        assertThat(duplicates).isEmpty();
+        assertThat(bookingOutboxRepository.count()).isZero();
+        assertThat(acknowledgedSends() - sentBefore).isEqualTo(2L);
+    }
+
+    @Test
+    void testBatchBookingConfirmationsArePublished() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Doctor otherDoctor = testEntityFactory.createDoctor("Anna", "Nowak", "anna.nowak@example.com", "123456788", LocalDate.of(1980, 1, 1), Specialisation.SURGEON);
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule first = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule second = testEntityFactory.createSchedule(otherDoctor, LocalDate.of(2030, 7, 18), LocalTime.of(14, 0), false);
+        CreateBatchBookingDTO batchBookingDTO = new CreateBatchBookingDTO()
+                .patientId(patient.getId())
+                .scheduleIds(List.of(first.getId(), second.getId()));
+
+        schedulesService.createBatchBooking(batchBookingDTO);
+
+        List<ConsumerRecord<String, String>> records = pollFor(Duration.ofSeconds(10), 2);
+        assertThat(records).extracting(ConsumerRecord::key)
+                .containsExactlyInAnyOrder(String.valueOf(doctor.getId()), String.valueOf(otherDoctor.getId()));
+        assertThat(records).allSatisfy(record -> assertThat(record.value()).contains(patient.getEmail()));
+    }
+
+    @Test
+    void testRolledBackBookingIsNotPublished() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            schedulesService.createBooking(bookingOf(schedule, patient));
+            status.setRollbackOnly();
+        });
+
+        assertThat(pollFor(Duration.ofSeconds(2), Integer.MAX_VALUE)).isEmpty();
+        assertThat(bookingOutboxRepository.count()).isZero();
+        assertThat(scheduleRepository.findById(schedule.getId())).get()
+                .extracting(DoctorSchedule::isBooked).isEqualTo(false);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedSendKeepsItAndLaterRowsInOrder() throws Exception {
+        var repository = mock(BookingOutboxRepository.class);
+        var leases = mock(OutboxRelayLeaseRepository.class);
+        KafkaTemplate<String, BookingConfirmationDTO> template = mock(KafkaTemplate.class);
+        var payload = objectMapper.writeValueAsString(new BookingConfirmationDTO());
+        List<BookingOutbox> batch = List.of(outboxRow(1L, payload), outboxRow(2L, payload), outboxRow(3L, payload));
+        when(repository.findByOrderByIdAsc(any(Limit.class))).thenReturn(batch);
+        when(leases.renew(anyString(), anyString(), any(), any())).thenReturn(1);
+        when(template.send(anyString(), anyString(), any(BookingConfirmationDTO.class))).thenReturn(
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")),
+                CompletableFuture.completedFuture(null));
+
+        new BookingOutboxRelay(repository, leases, template, objectMapper, new SimpleMeterRegistry(), batch.size(),
+                Duration.ofSeconds(1), Duration.ofSeconds(30))
+                .relay();
+
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    private BookingOutbox outboxRow(Long id, String payload) {
+        var row = BookingOutbox.builder()
+                .topic("booking")
+                .messageKey("7")
+                .payload(payload)
+                .build();
+        row.setId(id);
+        return row;
+    }
+
+    private long acknowledgedSends() {
+        return meterRegistry.get("bookingapp.kafka.send").tag("outcome", "success").timer().count();
+    }
+
+    private CreateBookingDTO bookingOf(DoctorSchedule schedule, Patient patient) {
+        CreateBookingDTO createBookingDTO = new CreateBookingDTO();
+        createBookingDTO.setScheduleId(schedule.getId());
+        createBookingDTO.setPatientId(patient.getId());
+        return createBookingDTO;
+    }
+
+    private List<ConsumerRecord<String, String>> pollFor(Duration timeout, int expected) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (records.size() < expected && System.nanoTime() < deadline) {
+            ConsumerRecords<String, String> polled = consumer.poll(Duration.ofMillis(200));
+            polled.forEach(records::add);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.bookingsystemapp;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.Specialisation;
+import org.example.bookingsystemapp.model.SingleTerminDTO;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.PatientRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.service.SchedulesService;
+import org.example.bookingsystemapp.service.help.AvailabilityVersions;
+import org.example.bookingsystemapp.service.help.SlotAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "bookingapp.caches[freeSchedules].maximum-weight=50")
+public class CacheConfigurationTest {
+
+    private static final int DOCTORS = 5;
+    private static final int SLOTS_PER_DOCTOR = 20;
+
+    @Autowired
+    private SchedulesService schedulesService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AvailabilityVersions availabilityVersions;
+
+    @Autowired
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Autowired
+    TestEntityFactory testEntityFactory;
+
+    @BeforeEach
+    void cleanUp() {
+        scheduleRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+        cacheManager.getCache("freeSchedules").clear();
+    }
+
+    @Test
+    void testFreeSchedulesCacheEvictsToWeightBudget() {
+        List<Long> doctorIds = new ArrayList<>();
+        for (int d = 0; d < DOCTORS; d++) {
+            Doctor doctor = testEntityFactory.createDoctor("Adam", "Nowak" + d, "adam" + d + "@example.com", "98765432" + d,
+                    LocalDate.of(1985, 3, 25), Specialisation.CARDIOLOGIST);
+            List<SingleTerminDTO> termins = new ArrayList<>();
+            for (int i = 0; i < SLOTS_PER_DOCTOR; i++) {
+                var termin = new SingleTerminDTO();
+                termin.setDay(LocalDate.of(2030, 1, 1).plusDays(i));
+                termin.setStartTime(LocalTime.of(10, 0));
+                termins.add(termin);
+            }
+            scheduleRepository.insertSchedules(doctor.getId(), termins);
+            doctorIds.add(doctor.getId());
+        }
+
+        Cache<Object, Object> nativeCache = ((CaffeineCache) cacheManager.getCache("freeSchedules")).getNativeCache();
+        var before = nativeCache.stats();
+        doctorIds.forEach(schedulesService::getFreeSchedulesOfDoctor);
+        doctorIds.forEach(schedulesService::getFreeSchedulesOfDoctor);
+
+        nativeCache.cleanUp();
+        var stats = nativeCache.stats().minus(before);
+        long weightedSize = nativeCache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+
+        assertThat(weightedSize).isLessThanOrEqualTo(50);
+        assertThat(nativeCache.estimatedSize()).isLessThan(DOCTORS);
+        assertThat(stats.evictionCount()).isPositive();
+        assertThat(stats.requestCount()).isEqualTo(2L * DOCTORS);
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "freeSchedules").tag("result", "miss").functionCounter())
+                .isNotNull();
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "slotAvailabilityIndex").functionCounter())
+                .isNotNull();
+    }
+
+    @Test
+    void testEvictedFreeSchedulesChangeTheirETag() {
+        List<Long> doctorIds = new ArrayList<>();
+        for (int d = 0; d < DOCTORS; d++) {
+            Doctor doctor = testEntityFactory.createDoctor("Adam", "Nowak" + d, "adam" + d + "@example.com", "98765432" + d,
+                    LocalDate.of(1985, 3, 25), Specialisation.CARDIOLOGIST);
+            scheduleRepository.insertSchedules(doctor.getId(), termins(SLOTS_PER_DOCTOR));
+            doctorIds.add(doctor.getId());
+        }
+        var etags = doctorIds.stream().map(availabilityVersions::freeSchedulesETag).toList();
+
+        doctorIds.forEach(schedulesService::getFreeSchedulesOfDoctor);
+        Cache<Object, Object> nativeCache = ((CaffeineCache) cacheManager.getCache("freeSchedules")).getNativeCache();
+        nativeCache.cleanUp();
+
+        for (int d = 0; d < DOCTORS; d++) {
+            boolean cached = nativeCache.getIfPresent(doctorIds.get(d)) != null;
+            assertThat(availabilityVersions.freeSchedulesETag(doctorIds.get(d)).equals(etags.get(d))).isEqualTo(cached);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefreshChangesETagOnlyWhenListChanged() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        scheduleRepository.insertSchedules(doctor.getId(), termins(3));
+        schedulesService.getFreeSchedulesOfDoctor(doctor.getId());
+        var etag = availabilityVersions.freeSchedulesETag(doctor.getId());
+        var nativeCache = (LoadingCache<Object, Object>) ((CaffeineCache) cacheManager.getCache("freeSchedules")).getNativeCache();
+
+        nativeCache.refresh(doctor.getId()).join();
+        assertThat(availabilityVersions.freeSchedulesETag(doctor.getId())).isEqualTo(etag);
+
+        // a write made elsewhere: neither the caches nor the versions of this instance hear about it
+        var later = new SingleTerminDTO();
+        later.setDay(LocalDate.of(2031, 1, 1));
+        later.setStartTime(LocalTime.of(10, 0));
+        scheduleRepository.insertSchedules(doctor.getId(), List.of(later));
+        slotAvailabilityIndex.invalidate(doctor.getId());
+
+        nativeCache.refresh(doctor.getId()).join();
+        assertThat(availabilityVersions.freeSchedulesETag(doctor.getId())).isNotEqualTo(etag);
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId())).hasSize(4);
+    }
+
+    private static List<SingleTerminDTO> termins(int count) {
+        List<SingleTerminDTO> termins = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            var termin = new SingleTerminDTO();
+            termin.setDay(LocalDate.of(2030, 1, 1).plusDays(i));
+            termin.setStartTime(LocalTime.of(10, 0));
+            termins.add(termin);
+        }
+        return termins;
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.bookingsystemapp;
+
+import lombok.extern.slf4j.Slf4j;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.bookingsystemapp.model.BookingConfirmationDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@ActiveProfiles("test")
+@EmbeddedKafka(topics = {KafkaProducerThroughputBenchmarkTest.BASELINE_TOPIC, KafkaProducerThroughputBenchmarkTest.TUNED_TOPIC,
+        KafkaProducerThroughputBenchmarkTest.AFFINITY_TOPIC}, partitions = 6)
+@SpringBootTest(properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+public class KafkaProducerThroughputBenchmarkTest {
+
+    static final String BASELINE_TOPIC = "booking-baseline";
+    static final String TUNED_TOPIC = "booking-tuned";
+    static final String AFFINITY_TOPIC = "booking-affinity";
+    private static final int MESSAGES = 20_000;
+    private static final int AFFINITY_MESSAGES = 500;
+    private static final int DOCTORS = 50;
+
+    @Autowired
+    private ProducerFactory<String, BookingConfirmationDTO> producerFactory;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testProducerIsTunedForOrderedBatches() {
+        assertThat(producerFactory.getConfigurationProperties())
+                .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true)
+                .containsEntry(ProducerConfig.ACKS_CONFIG, "all")
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4")
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 20)
+                .containsEntry(ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+    }
+
+    @Test
+    void testDoctorKeyKeepsConfirmationsOnOnePartitionInOrder() throws Exception {
+        var template = new KafkaTemplate<>(producerFactory);
+        List<CompletableFuture<SendResult<String, BookingConfirmationDTO>>> futures = new ArrayList<>(AFFINITY_MESSAGES);
+        for (int i = 0; i < AFFINITY_MESSAGES; i++) {
+            futures.add(template.send(AFFINITY_TOPIC, String.valueOf(i % DOCTORS), confirmation(i)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        var props = KafkaTestUtils.consumerProps("affinity-test", "false", embeddedKafkaBroker);
+        List<ConsumerRecord<String, String>> records = new ArrayList<>(AFFINITY_MESSAGES);
+        try (var consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, AFFINITY_TOPIC);
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (records.size() < AFFINITY_MESSAGES && System.nanoTime() < deadline) {
+                consumer.poll(Duration.ofMillis(200)).forEach(records::add);
+            }
+        }
+
+        assertThat(records).hasSize(AFFINITY_MESSAGES);
+        var byKey = records.stream().collect(Collectors.groupingBy(ConsumerRecord::key));
+        assertThat(byKey).hasSize(DOCTORS);
+        for (var keyRecords : byKey.values()) {
+            assertThat(keyRecords.stream().map(ConsumerRecord::partition).distinct()).hasSize(1);
+            List<Integer> sequence = new ArrayList<>();
+            for (var record : keyRecords) {
+                var email = objectMapper.readValue(record.value(), BookingConfirmationDTO.class).getPatientEmail();
+                sequence.add(Integer.parseInt(email.substring("patient".length(), email.indexOf('@'))));
+            }
+            assertThat(sequence).isSorted();
+        }
+    }
+
+    @Tag("benchmark")
+    @Test
+    void testTunedProducerThroughput() {
+        var baselineFactory = new DefaultKafkaProducerFactory<String, BookingConfirmationDTO>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafkaBroker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class));
+
+        double baseline = messagesPerSecond(new KafkaTemplate<>(baselineFactory), BASELINE_TOPIC, i -> null);
+        double tuned = messagesPerSecond(new KafkaTemplate<>(producerFactory), TUNED_TOPIC, i -> String.valueOf(i % DOCTORS));
+        baselineFactory.destroy();
+
+        log.info("Producer benchmark: messages={}, baseline msg/sec={}, tuned msg/sec={}",
+                MESSAGES, Math.round(baseline), Math.round(tuned));
+    }
+
+    private double messagesPerSecond(KafkaTemplate<String, BookingConfirmationDTO> template, String topic, IntFunction<String> key) {
+        template.send(topic, key.apply(0), confirmation(0)).join();
+
+        List<CompletableFuture<SendResult<String, BookingConfirmationDTO>>> futures = new ArrayList<>(MESSAGES);
+        long begin = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            futures.add(template.send(topic, key.apply(i), confirmation(i)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+
+        assertThat(futures).allMatch(future -> !future.isCompletedExceptionally());
+        return MESSAGES / seconds;
+    }
+
+    private BookingConfirmationDTO confirmation(int i) {
+        var dto = new BookingConfirmationDTO();
+        dto.setDoctorName("Nowak");
+        dto.setPatientEmail("patient" + i + "@example.com");
+        dto.setPhoneNumber("123456789");
+        dto.setConfirmationMethod("EMAIL");
+        dto.setScheduleDay(LocalDate.of(2030, 1, 1).plusDays(i % 365));
+        dto.setScheduleHour(LocalTime.of(10, 0).plusMinutes(30L * (i % 20)));
+        return dto;
+    }
+}
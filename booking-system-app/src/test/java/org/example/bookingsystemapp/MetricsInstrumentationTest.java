@@ -0,0 +1,173 @@
+package org.example.bookingsystemapp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.example.bookingsystemapp.config.QueryCountConfig;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.entities.Patient;
+import org.example.bookingsystemapp.exception.NotAvailableException;
+import org.example.bookingsystemapp.model.CreateBookingDTO;
+import org.example.bookingsystemapp.repositories.BookingOutboxRepository;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.PatientRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.service.SchedulesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest
+public class MetricsInstrumentationTest {
+
+    @Autowired
+    private SchedulesService schedulesService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private QueryCountConfig.QueryCountFilter queryCountFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Autowired
+    TestEntityFactory testEntityFactory;
+
+    @BeforeEach
+    void cleanUp() {
+        bookingOutboxRepository.deleteAll();
+        scheduleRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void testBookingTimedAndConflictCounted() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+        CreateBookingDTO bookingDTO = new CreateBookingDTO();
+        bookingDTO.setScheduleId(schedule.getId());
+        bookingDTO.setPatientId(patient.getId());
+        long bookingsBefore = bookingsTimed();
+        double conflictsBefore = takenConflicts();
+
+        schedulesService.createBooking(bookingDTO);
+        Throwable exception = catchThrowable(() -> schedulesService.createBooking(bookingDTO));
+
+        assertThat(exception).isInstanceOf(NotAvailableException.class);
+        assertThat(bookingsTimed() - bookingsBefore).isEqualTo(2L);
+        assertThat(takenConflicts() - conflictsBefore).isEqualTo(1.0);
+        assertThat(prometheusMeterRegistry.scrape())
+                .contains("bookingapp_schedules_seconds{")
+                .contains("quantile=\"0.99\"")
+                .contains("bookingapp_schedule_conflicts_total{");
+    }
+
+    @Test
+    void testQueriesCountedPerRequest() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+        var request = new MockHttpServletRequest("GET", "/api/schedule/" + schedule.getId());
+
+        queryCountFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/schedule/{id}");
+            scheduleRepository.findScheduleById(schedule.getId());
+            scheduleRepository.findScheduleById(schedule.getId());
+        });
+
+        var queries = meterRegistry.get("bookingapp.http.queries")
+                .tag("method", "GET")
+                .tag("uri", "/api/schedule/{id}")
+                .summary();
+        assertThat(queries.count()).isEqualTo(1L);
+        assertThat(queries.totalAmount()).isEqualTo(2.0);
+        assertThat(prometheusMeterRegistry.scrape()).contains("bookingapp_http_queries_count{");
+    }
+
+    @Test
+    void testRepeatedStatementsReportedAsNPlusOne() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+        var request = new MockHttpServletRequest("GET", "/api/schedule/free/" + doctor.getId());
+        var response = new MockHttpServletResponse();
+
+        queryCountFilter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/schedule/free/{doctorId}");
+            for (int i = 0; i < 10; i++) {
+                scheduleRepository.findScheduleById(schedule.getId());
+            }
+        });
+
+        assertThat(response.getHeader(QueryCountConfig.QUERY_COUNT_HEADER)).isEqualTo("10");
+        assertThat(meterRegistry.get("bookingapp.http.repeated-statements")
+                .tag("uri", "/api/schedule/free/{doctorId}")
+                .counter()
+                .count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testPrometheusScrapedAnonymouslyOnlyOnManagementPort() throws Exception {
+        try (var context = new SpringApplicationBuilder(BookingSystemAppApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--spring.jpa.show-sql=false");
+             var httpClient = HttpClient.newHttpClient()) {
+            var environment = context.getEnvironment();
+            var applicationPort = URI.create("http://localhost:%s/api/actuator/prometheus"
+                    .formatted(environment.getProperty("local.server.port")));
+            var managementPort = URI.create("http://localhost:%s/actuator/prometheus"
+                    .formatted(environment.getProperty("local.management.port")));
+
+            var onApplicationPort = httpClient.send(HttpRequest.newBuilder(applicationPort).build(), HttpResponse.BodyHandlers.discarding());
+            var onManagementPort = httpClient.send(HttpRequest.newBuilder(managementPort).build(), HttpResponse.BodyHandlers.ofString());
+
+            assertThat(onApplicationPort.statusCode()).isEqualTo(401);
+            assertThat(onManagementPort.statusCode()).isEqualTo(200);
+            assertThat(onManagementPort.body()).contains("bookingapp_");
+        }
+    }
+
+    private long bookingsTimed() {
+        return meterRegistry.find("bookingapp.schedules").tag("method", "createBooking").timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+
+    private double takenConflicts() {
+        var counter = meterRegistry.find("bookingapp.schedule.conflicts").tag("reason", "taken").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
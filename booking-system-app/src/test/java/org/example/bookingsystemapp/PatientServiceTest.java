@@ -1,6 +1,7 @@
 package org.example.bookingsystemapp;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.assertj.core.api.Assertions;
@@ -37,6 +38,9 @@ public class PatientServiceTest {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Autowired
     TestEntityFactory testEntityFactory;
 
@@ -104,11 +108,12 @@ public class PatientServiceTest {
     void testUpdatePatientIdNegative() {
         PatientCreateDTO patientCreateDTO = testDtoFactory.createPatientCreateDTO();
         PatientDTO createdPatient = patientService.createPatient(patientCreateDTO);
-        PatientDTO patientDTO = testDtoFactory.createPatientDTO(43L, createdPatient.getVersion());
+        Long missingId = createdPatient.getId() + 1;
+        PatientDTO patientDTO = testDtoFactory.createPatientDTO(missingId, createdPatient.getVersion());
         Throwable exception = catchThrowable(() -> patientService.updatePatient(patientDTO));
         assertThat(exception)
                 .isInstanceOf(NotFoundException.class)
-                .hasMessage("Patient not found with id " + 43L);
+                .hasMessage("Patient not found with id " + missingId);
     }
 
     @Test
@@ -133,6 +138,26 @@ public class PatientServiceTest {
         Assertions.assertThat(patientRepository.existsById(createdPatient.getId())).isFalse();
     }
 
+    @Test
+    void testPatientEntityCacheFollowsUpdateAndDelete() {
+        PatientDTO createdPatient = patientService.createPatient(testDtoFactory.createPatientCreateDTO());
+        entityManagerFactory.getCache().evictAll();
+        patientService.getPatientById(createdPatient.getId());
+        assertThat(entityManagerFactory.getCache().contains(Patient.class, createdPatient.getId())).isTrue();
+
+        PatientDTO patientDTO = testDtoFactory.createPatientDTO(createdPatient.getId(), createdPatient.getVersion());
+        patientDTO.setLastName("Nowak");
+        patientService.updatePatient(patientDTO);
+        assertThat(patientService.getPatientById(createdPatient.getId()).getLastName()).isEqualTo("Nowak");
+
+        DeleteReferenceDTO toDeleteDTO = new DeleteReferenceDTO();
+        toDeleteDTO.setId(createdPatient.getId());
+        toDeleteDTO.setVersion(createdPatient.getVersion() + 1);
+        patientService.deletePatient(toDeleteDTO);
+        assertThat(catchThrowable(() -> patientService.getPatientById(createdPatient.getId())))
+                .isInstanceOf(NotFoundException.class);
+    }
+
     @Test
     void testDeletePatientIdNegative() {
         PatientCreateDTO patientCreateDTO = testDtoFactory.createPatientCreateDTO();
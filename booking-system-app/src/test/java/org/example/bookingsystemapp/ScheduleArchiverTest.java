@@ -0,0 +1,122 @@
+package org.example.bookingsystemapp;
+
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.entities.DoctorScheduleHistory;
+import org.example.bookingsystemapp.entities.Patient;
+import org.example.bookingsystemapp.model.CreateBookingDTO;
+import org.example.bookingsystemapp.model.FreeSchedulesOfDoctorDTO;
+import org.example.bookingsystemapp.repositories.BookingOutboxRepository;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.DoctorScheduleHistoryRepository;
+import org.example.bookingsystemapp.repositories.PatientRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.service.ScheduleArchiver;
+import org.example.bookingsystemapp.service.SchedulesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "bookingapp.archive.chunk-size=2",
+        "bookingapp.archive.max-chunks=2"
+})
+public class ScheduleArchiverTest {
+
+    @Autowired
+    private ScheduleArchiver scheduleArchiver;
+
+    @Autowired
+    private SchedulesService schedulesService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DoctorScheduleHistoryRepository doctorScheduleHistoryRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    TestEntityFactory testEntityFactory;
+
+    @BeforeEach
+    void cleanUp() {
+        doctorScheduleHistoryRepository.deleteAll();
+        bookingOutboxRepository.deleteAll();
+        scheduleRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void testPastSchedulesMovedInBoundedChunks() {
+        LocalDate today = LocalDate.now();
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule booked = testEntityFactory.createSchedule(doctor, today.minusDays(30), LocalTime.of(10, 0), false);
+        CreateBookingDTO bookingDTO = new CreateBookingDTO();
+        bookingDTO.setScheduleId(booked.getId());
+        bookingDTO.setPatientId(patient.getId());
+        schedulesService.createBooking(bookingDTO);
+        for (int i = 1; i <= 4; i++) {
+            testEntityFactory.createSchedule(doctor, today.minusDays(i), LocalTime.of(11, 0), false);
+        }
+        DoctorSchedule todays = testEntityFactory.createSchedule(doctor, today, LocalTime.of(10, 0), false);
+        DoctorSchedule tomorrows = testEntityFactory.createSchedule(doctor, today.plusDays(1), LocalTime.of(10, 0), false);
+
+        assertThat(scheduleArchiver.archiveBefore(today)).isEqualTo(4);
+        assertThat(scheduleArchiver.archiveBefore(today)).isEqualTo(1);
+        assertThat(scheduleArchiver.archiveBefore(today)).isZero();
+
+        assertThat(scheduleRepository.findAll()).extracting(DoctorSchedule::getId)
+                .containsExactlyInAnyOrder(todays.getId(), tomorrows.getId());
+        assertThat(doctorScheduleHistoryRepository.count()).isEqualTo(5L);
+        assertThat(doctorScheduleHistoryRepository.findById(booked.getId())).get()
+                .satisfies(history -> {
+                    assertThat(history.getDoctorId()).isEqualTo(doctor.getId());
+                    assertThat(history.getPatientId()).isEqualTo(patient.getId());
+                    assertThat(history.isBooked()).isTrue();
+                    assertThat(history.getDay()).isEqualTo(today.minusDays(30));
+                    assertThat(history.getArchivedAt()).isNotNull();
+                });
+        assertThat(doctorScheduleHistoryRepository.findAll()).extracting(DoctorScheduleHistory::getPatientId)
+                .containsOnlyOnce(patient.getId());
+    }
+
+    @Test
+    void testFreeSchedulesStartToday() {
+        LocalDate today = LocalDate.now();
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        testEntityFactory.createSchedule(doctor, today.minusDays(1), LocalTime.of(10, 0), false);
+        testEntityFactory.createSchedule(doctor, today, LocalTime.of(10, 0), false);
+        testEntityFactory.createSchedule(doctor, today.plusDays(1), LocalTime.of(10, 0), false);
+
+        assertThat(schedulesService.loadFreeSchedulesOfDoctor(doctor.getId()))
+                .extracting(FreeSchedulesOfDoctorDTO::getDay)
+                .containsExactly(today, today.plusDays(1));
+        assertThat(scheduleRepository.findFreeSchedulesOfDoctorByDoctorId(doctor.getId(), today)).hasSize(2);
+
+        scheduleArchiver.archiveBefore(today);
+
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()))
+                .extracting(FreeSchedulesOfDoctorDTO::getDay)
+                .containsExactly(today, today.plusDays(1));
+        assertThat(doctorScheduleHistoryRepository.count()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.bookingsystemapp;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReqDTO;
+import org.example.bookingsystemapp.model.SingleTerminDTO;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.PatientRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.service.SchedulesService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+/**
+ * In-process mem: databases hand over the whole result at once; a file database spills results beyond
+ * result_max_memory_rows to disk and reads them back lazily, like a streaming MySQL driver.
+ */
+@Slf4j
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:hsqldb:file:target/hsqldb/streaming;hsqldb.result_max_memory_rows=10000;shutdown=true"
+})
+public class ScheduleCriteriaStreamingTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int SLOTS_PER_DAY = 20;
+    private static final int INSERT_CHUNK = 100_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    @Autowired
+    private SchedulesService schedulesService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    TestEntityFactory testEntityFactory;
+
+    @BeforeEach
+    void cleanUp() {
+        scheduleRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+    }
+
+    @AfterEach
+    void dropRows() {
+        scheduleRepository.deleteAllInBatch();
+    }
+
+    @Tag("benchmark")
+    @Test
+    void testStreamSchedulesByCriteriaKeepsHeapFlat() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        LocalDate firstDay = LocalDate.of(2030, 1, 1);
+        List<SingleTerminDTO> termins = new ArrayList<>(INSERT_CHUNK);
+        for (int i = 0; i < ROWS; i++) {
+            var termin = new SingleTerminDTO();
+            termin.setDay(firstDay.plusDays(i / SLOTS_PER_DAY));
+            termin.setStartTime(LocalTime.of(10, 0).plusMinutes(30L * (i % SLOTS_PER_DAY)));
+            termins.add(termin);
+            if (termins.size() == INSERT_CHUNK) {
+                scheduleRepository.insertSchedules(doctor.getId(), termins);
+                termins.clear();
+            }
+        }
+
+        var request = new ScheduleCriteriaReqDTO();
+        request.setStartDay(firstDay);
+        request.setEndDay(firstDay.plusDays(ROWS / SLOTS_PER_DAY));
+        request.setSpecialisation("CARDIOLOGIST");
+
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        OutputStream sink = OutputStream.nullOutputStream();
+        AtomicLong rows = new AtomicLong();
+        AtomicLong peakHeap = new AtomicLong();
+        AtomicLong previousScheduleId = new AtomicLong();
+
+        long heapBefore = usedHeapAfterGc();
+        long begin = System.nanoTime();
+        schedulesService.streamSchedulesByCriteria(request, row -> {
+            try {
+                writer.writeValue(sink, row);
+                sink.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            assertThat(row.getScheduleId()).isGreaterThan(previousScheduleId.getAndSet(row.getScheduleId()));
+            if (rows.incrementAndGet() % (ROWS / 10) == 0) {
+                peakHeap.accumulateAndGet(usedHeapAfterGc(), Math::max);
+            }
+        });
+        log.info("Streamed {} rows in {} ms, heap before query: {} MB, peak heap while streaming: {} MB",
+                rows.get(), (System.nanoTime() - begin) / 1_000_000,
+                heapBefore / (1024 * 1024), peakHeap.get() / (1024 * 1024));
+
+        assertThat(rows.get()).isEqualTo(ROWS);
+        assertThat(peakHeap.get() - heapBefore).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
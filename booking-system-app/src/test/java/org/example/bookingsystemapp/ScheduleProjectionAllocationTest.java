@@ -0,0 +1,151 @@
+package org.example.bookingsystemapp;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.model.SingleTerminDTO;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.PatientRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@Slf4j
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class ScheduleProjectionAllocationTest {
+
+    private static final int SLOTS = 5_000;
+    private static final int SLOTS_PER_DAY = 20;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    TestEntityFactory testEntityFactory;
+
+    @BeforeEach
+    void cleanUp() {
+        scheduleRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+    }
+
+    @AfterEach
+    void dropRows() {
+        scheduleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testFreeSlotProjectionLeavesPersistenceContextEmpty() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        insertSlots(doctor, SLOTS_PER_DAY);
+
+        assertThat(managedAfter(entities(doctor))).isEqualTo(SLOTS_PER_DAY);
+        assertThat(managedAfter(projections(doctor))).isEqualTo(0);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void testFreeSlotProjectionAllocatesLessThanEntities() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        insertSlots(doctor, SLOTS);
+        Supplier<Integer> entities = entities(doctor);
+        Supplier<Integer> projections = projections(doctor);
+
+        long entityBytes = Long.MAX_VALUE;
+        long projectionBytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            entityBytes = Math.min(entityBytes, allocatedBy(entities));
+            projectionBytes = Math.min(projectionBytes, allocatedBy(projections));
+        }
+        log.info("Free slots of {} rows: entities={} KB, projections={} KB",
+                SLOTS, entityBytes / 1024, projectionBytes / 1024);
+
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    @Test
+    void testScheduleByIdLeavesPersistenceContextEmpty() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+
+        assertThat(managedAfter(() -> scheduleRepository.findScheduleById(schedule.getId()).isPresent() ? 1 : 0)).isEqualTo(0);
+    }
+
+    private void insertSlots(Doctor doctor, int slots) {
+        List<SingleTerminDTO> termins = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            var termin = new SingleTerminDTO();
+            termin.setDay(LocalDate.of(2030, 1, 1).plusDays(i / SLOTS_PER_DAY));
+            termin.setStartTime(LocalTime.of(10, 0).plusMinutes(30L * (i % SLOTS_PER_DAY)));
+            termins.add(termin);
+        }
+        scheduleRepository.insertSchedules(doctor.getId(), termins);
+    }
+
+    private Supplier<Integer> entities(Doctor doctor) {
+        return () -> entityManager.createQuery("""
+                        SELECT s FROM DoctorSchedule s
+                        WHERE s.doctor.id = :doctorId
+                        AND s.booked = false
+                        AND s.day >= :fromDay
+                        """, DoctorSchedule.class)
+                .setParameter("doctorId", doctor.getId())
+                .setParameter("fromDay", LocalDate.now())
+                .getResultList()
+                .size();
+    }
+
+    private Supplier<Integer> projections(Doctor doctor) {
+        return () -> scheduleRepository.findFreeSchedulesOfDoctorByDoctorId(doctor.getId(), LocalDate.now()).size();
+    }
+
+    private int managedAfter(Supplier<Integer> read) {
+        return transactionTemplate.execute(status -> {
+            read.get();
+            return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+        });
+    }
+
+    private long allocatedBy(Supplier<Integer> read) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return transactionTemplate.execute(status -> {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            read.get();
+            entityManager.flush();
+            return threads.getCurrentThreadAllocatedBytes() - before;
+        });
+    }
+}
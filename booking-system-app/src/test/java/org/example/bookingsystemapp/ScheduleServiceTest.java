@@ -1,6 +1,9 @@
 package org.example.bookingsystemapp;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
 import org.assertj.core.api.Assertions;
+import org.example.bookingsystemapp.entities.ConfirmationMethod;
 import org.example.bookingsystemapp.entities.Doctor;
 import org.example.bookingsystemapp.entities.DoctorSchedule;
 import org.example.bookingsystemapp.entities.Patient;
@@ -10,21 +13,29 @@ import org.example.bookingsystemapp.repositories.DoctorRepository;
 import org.example.bookingsystemapp.repositories.PatientRepository;
 import org.example.bookingsystemapp.repositories.ScheduleRepository;
 import org.example.bookingsystemapp.service.KafkaProducerService;
+import org.example.bookingsystemapp.service.ReactiveScheduleService;
 import org.example.bookingsystemapp.service.SchedulesService;
+import org.example.bookingsystemapp.service.help.AvailabilityVersions;
+import org.example.bookingsystemapp.service.help.ScheduleCriteriaCache;
+import org.example.bookingsystemapp.service.help.SlotHolds;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
 import static org.example.bookingsystemapp.entities.Specialisation.CARDIOLOGIST;
+import static org.example.bookingsystemapp.entities.Specialisation.SURGEON;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 
@@ -52,11 +63,21 @@ public class ScheduleServiceTest {
     @Autowired
     private DoctorRepository doctorRepository;
 
+    @Autowired
+    private ReactiveScheduleService reactiveScheduleService;
+
+    @Autowired
+    private ScheduleCriteriaCache scheduleCriteriaCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     void cleanUp() {
         scheduleRepository.deleteAll();
         doctorRepository.deleteAll();
         patientRepository.deleteAll();
+        scheduleCriteriaCache.invalidateAll();
     }
 
     @Test
@@ -76,6 +97,26 @@ public class ScheduleServiceTest {
                 .hasMessage("Doctor not found with id " + 367L);
     }
 
+    @Test
+    void testAddDoctorScheduleReportsAllConflicts() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), true);
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 18), LocalTime.of(15, 0), false);
+        DoctorScheduleDTO scheduleDTO = testDtoFactory.doctorScheduleDTO(doctor.getId(), LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        SingleTerminDTO free = new SingleTerminDTO();
+        free.setDay(LocalDate.of(2031, 7, 17));
+        free.setStartTime(LocalTime.of(15, 0));
+        SingleTerminDTO taken = new SingleTerminDTO();
+        taken.setDay(LocalDate.of(2031, 7, 18));
+        taken.setStartTime(LocalTime.of(15, 0));
+        scheduleDTO.setTermins(List.of(scheduleDTO.getTermins().get(0), free, taken, free));
+        Throwable exception = catchThrowable(() -> schedulesService.addDoctorSchedule(scheduleDTO));
+        assertThat(exception)
+                .isInstanceOf(NotAvailableException.class)
+                .hasMessage("Doctor already has schedules at 14:00 on 2031-07-17, 15:00 on 2031-07-18, 15:00 on 2031-07-17");
+        assertThat(scheduleRepository.count()).isEqualTo(2L);
+    }
+
     @Test
     void testAddDoctorScheduleStartTimeNotValid() {
         Doctor doctor = testEntityFactory.createTestDoctor();
@@ -90,23 +131,74 @@ public class ScheduleServiceTest {
     @Test
     void testAddDoctorScheduleScheduleAlreadyExist() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), false);
-        DoctorScheduleDTO scheduleDTO2 = testDtoFactory.doctorScheduleDTO(doctor.getId(), LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        DoctorScheduleDTO scheduleDTO2 = testDtoFactory.doctorScheduleDTO(doctor.getId(), LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
         Throwable exception = catchThrowable(() -> schedulesService.addDoctorSchedule(scheduleDTO2));
         assertThat(exception)
                 .isInstanceOf(NotAvailableException.class)
                 .hasMessage("Doctor already has a schedule at " + scheduleDTO2.getTermins().get(0).getStartTime() + " on " + scheduleDTO2.getTermins().get(0).getDay());
     }
 
+    @Test
+    void testAddRecurringDoctorSchedules() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        DoctorSchedule existing = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 16), LocalTime.of(11, 0), true);
+        RecurringScheduleDTO recurringDTO = testDtoFactory.recurringScheduleDTO(doctor.getId(), List.of("MONDAY", "wednesday"),
+                LocalTime.of(10, 0), LocalTime.of(14, 0), LocalDate.of(2031, 7, 14), 12);
+        RecurringScheduleResultDTO result = schedulesService.addRecurringDoctorSchedules(recurringDTO);
+        assertThat(result.getCreated()).isEqualTo(12 * 2 * 8 - 1);
+        assertThat(result.getConflicts().size()).isEqualTo(1);
+        assertThat(result.getConflicts().get(0).getDay()).isEqualTo(existing.getDay());
+        assertThat(result.getConflicts().get(0).getStartTime()).isEqualTo(existing.getStartTime());
+        assertThat(scheduleRepository.count()).isEqualTo(12 * 2 * 8);
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(12 * 2 * 8 - 1);
+    }
+
+    @Test
+    void testAddRecurringDoctorSchedulesTenThousandSlots() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        RecurringScheduleDTO recurringDTO = testDtoFactory.recurringScheduleDTO(doctor.getId(),
+                List.of("MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY"),
+                LocalTime.of(10, 0), LocalTime.of(20, 30), LocalDate.of(2031, 7, 14), 69);
+        long start = System.nanoTime();
+        RecurringScheduleResultDTO result = schedulesService.addRecurringDoctorSchedules(recurringDTO);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertThat(result.getCreated()).isEqualTo(69 * 7 * 21);
+        assertThat(scheduleRepository.count()).isEqualTo(69 * 7 * 21);
+        System.out.printf("Generated %d recurring slots in %d ms%n", result.getCreated(), millis);
+    }
+
+    @Test
+    void testAddRecurringDoctorSchedulesWrongDayOfWeek() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        RecurringScheduleDTO recurringDTO = testDtoFactory.recurringScheduleDTO(doctor.getId(), List.of("MONDAY", "FUNDAY"),
+                LocalTime.of(10, 0), LocalTime.of(14, 0), LocalDate.of(2031, 7, 14), 2);
+        Throwable exception = catchThrowable(() -> schedulesService.addRecurringDoctorSchedules(recurringDTO));
+        assertThat(exception)
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Invalid day of week: FUNDAY");
+    }
+
+    @Test
+    void testAddRecurringDoctorSchedulesTooManySlots() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        RecurringScheduleDTO recurringDTO = testDtoFactory.recurringScheduleDTO(doctor.getId(), List.of("MONDAY"),
+                LocalTime.of(10, 0), LocalTime.of(20, 30), LocalDate.of(2031, 7, 14), 1000);
+        Throwable exception = catchThrowable(() -> schedulesService.addRecurringDoctorSchedules(recurringDTO));
+        assertThat(exception)
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Recurring schedule would generate 21000 slots, the limit is 20000");
+    }
+
     @Test
     void testGetScheduleById() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
         DoctorScheduleSingleDTO foundSchedule = schedulesService.getScheduleById(schedule.getId());
         assertThat(foundSchedule)
                 .isNotNull()
                 .satisfies(s -> {
-                    assertThat(s.getDay()).isEqualTo(LocalDate.of(2025, 7, 17));
+                    assertThat(s.getDay()).isEqualTo(LocalDate.of(2031, 7, 17));
                     assertThat(s.getStartTime()).isEqualTo(LocalTime.of(14, 0));
                     assertThat(s.getBooked()).isFalse();
                 });
@@ -123,14 +215,14 @@ public class ScheduleServiceTest {
     @Test
     void testUpdateSchedule() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
         DoctorScheduleSingleDTO foundSchedule = schedulesService.getScheduleById(schedule.getId());
         foundSchedule.setStartTime(LocalTime.of(11, 0));
         DoctorScheduleSingleDTO updatedSchedule = schedulesService.updateSingleSchedule(foundSchedule);
         assertThat(updatedSchedule)
                 .isNotNull()
                 .satisfies(s -> {
-                    assertThat(s.getDay()).isEqualTo(LocalDate.of(2025, 7, 17));
+                    assertThat(s.getDay()).isEqualTo(LocalDate.of(2031, 7, 17));
                     assertThat(s.getStartTime()).isEqualTo(LocalTime.of(11, 0));
                     assertThat(s.getBooked()).isFalse();
                 });
@@ -139,8 +231,8 @@ public class ScheduleServiceTest {
     @Test
     void testUpdateScheduleAlreadyExist() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule1 = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), false);
-        DoctorSchedule schedule2 = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule schedule1 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule schedule2 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
         DoctorScheduleSingleDTO foundSchedule = schedulesService.getScheduleById(schedule2.getId());
         foundSchedule.setStartTime(schedule1.getStartTime());
         Throwable exception = catchThrowable(() -> schedulesService.updateSingleSchedule(foundSchedule));
@@ -152,7 +244,7 @@ public class ScheduleServiceTest {
     @Test
     void testUpdateScheduleWrongStartTime() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 25), false);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 25), false);
         DoctorScheduleSingleDTO foundSchedule = schedulesService.getScheduleById(schedule.getId());
         foundSchedule.setStartTime(LocalTime.of(15, 25));
         Throwable exception = catchThrowable(() -> schedulesService.updateSingleSchedule(foundSchedule));
@@ -164,7 +256,7 @@ public class ScheduleServiceTest {
     @Test
     void testDeleteSchedule() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 25), false);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 25), false);
         DeleteReferenceDTO toDeleteDTO = new DeleteReferenceDTO();
         toDeleteDTO.setId(schedule.getId());
         toDeleteDTO.setVersion(schedule.getVersion());
@@ -175,7 +267,7 @@ public class ScheduleServiceTest {
     @Test
     void testDeleteScheduleWrongId() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 25), false);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 25), false);
         DeleteReferenceDTO toDeleteDTO = new DeleteReferenceDTO();
         toDeleteDTO.setId(987L);
         toDeleteDTO.setVersion(schedule.getVersion());
@@ -188,7 +280,7 @@ public class ScheduleServiceTest {
     @Test
     void testDeleteScheduleWrongVersion() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 25), false);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 25), false);
         DeleteReferenceDTO toDeleteDTO = new DeleteReferenceDTO();
         toDeleteDTO.setId(schedule.getId());
         toDeleteDTO.setVersion(985);
@@ -202,7 +294,7 @@ public class ScheduleServiceTest {
     void testCreateBooking() {
         Doctor doctor = testEntityFactory.createTestDoctor();
         Patient patient = testEntityFactory.createTestPatient();
-        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
         doNothing().when(kafkaProducerService).getScheduleData(any(DoctorSchedule.class), any(Patient.class));
         CreateBookingDTO newBookingDTO = new CreateBookingDTO();
         newBookingDTO.setScheduleId(schedule.getId());
@@ -211,7 +303,7 @@ public class ScheduleServiceTest {
         assertThat(booked)
                 .isNotNull()
                 .satisfies(s -> {
-                    assertThat(s.getDay()).isEqualTo(LocalDate.of(2025, 7, 17));
+                    assertThat(s.getDay()).isEqualTo(LocalDate.of(2031, 7, 17));
                     assertThat(s.getStartTime()).isEqualTo(LocalTime.of(14, 0));
                     assertThat(s.getBooked()).isTrue();
                     assertThat(s.getPatientId()).isEqualTo(patient.getId());
@@ -223,7 +315,7 @@ public class ScheduleServiceTest {
     void testCreateBookingScheduleAlreadyTaken() {
         Doctor doctor = testEntityFactory.createTestDoctor();
         Patient patient = testEntityFactory.createTestPatient();
-        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), true);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), true);
         CreateBookingDTO newBookingDTO = new CreateBookingDTO();
         newBookingDTO.setScheduleId(schedule.getId());
         newBookingDTO.setPatientId(patient.getId());
@@ -233,16 +325,275 @@ public class ScheduleServiceTest {
                 .hasMessage("Termin on " + schedule.getDay() + " at " + schedule.getStartTime() + " is already taken");
     }
 
+    @Test
+    void testCreateBookingSecondPatientLoses() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient1 = testEntityFactory.createTestPatient();
+        Patient patient2 = testEntityFactory.createPatient("Anna", "Nowak", "anna.nowak@example.com", "123456788", LocalDate.of(1990, 1, 1), ConfirmationMethod.EMAIL);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        CreateBookingDTO firstBookingDTO = new CreateBookingDTO();
+        firstBookingDTO.setScheduleId(schedule.getId());
+        firstBookingDTO.setPatientId(patient1.getId());
+        CreateBookingDTO secondBookingDTO = new CreateBookingDTO();
+        secondBookingDTO.setScheduleId(schedule.getId());
+        secondBookingDTO.setPatientId(patient2.getId());
+        schedulesService.createBooking(firstBookingDTO);
+        Throwable exception = catchThrowable(() -> schedulesService.createBooking(secondBookingDTO));
+        assertThat(exception)
+                .isInstanceOf(NotAvailableException.class)
+                .hasMessage("Termin on " + schedule.getDay() + " at " + schedule.getStartTime() + " is already taken");
+        assertThat(schedulesService.getScheduleById(schedule.getId()).getPatientId()).isEqualTo(patient1.getId());
+    }
+
+    @Test
+    void testCreateBatchBooking() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule1 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 18), LocalTime.of(10, 0), false);
+        DoctorSchedule schedule2 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule schedule3 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 30), false);
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(3);
+        SlotHoldDTO hold = schedulesService.holdSchedule(new SlotHoldDTO().scheduleId(schedule1.getId()).patientId(patient.getId()));
+
+        List<BookingDTO> booked = schedulesService.createBatchBooking(new CreateBatchBookingDTO()
+                .patientId(patient.getId())
+                .scheduleIds(List.of(schedule1.getId(), schedule2.getId()))
+                .holdTokens(List.of(hold.getHoldToken())));
+
+        Assertions.assertThat(booked).extracting(BookingDTO::getId).containsExactly(schedule2.getId(), schedule1.getId());
+        Assertions.assertThat(booked).allSatisfy(booking -> {
+            assertThat(booking.getBooked()).isTrue();
+            assertThat(booking.getPatientId()).isEqualTo(patient.getId());
+        });
+        Assertions.assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()))
+                .extracting(FreeSchedulesOfDoctorDTO::getScheduleId)
+                .containsExactly(schedule3.getId());
+    }
+
+    @Test
+    void testCreateBatchBookingIsAllOrNothing() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule free = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule taken = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 30), true);
+        CreateBatchBookingDTO batchBookingDTO = new CreateBatchBookingDTO()
+                .patientId(patient.getId())
+                .scheduleIds(List.of(free.getId(), taken.getId()));
+
+        Throwable exception = catchThrowable(() -> schedulesService.createBatchBooking(batchBookingDTO));
+        assertThat(exception)
+                .isInstanceOf(NotAvailableException.class)
+                .hasMessage("1 of schedules " + batchBookingDTO.getScheduleIds() + " are already taken");
+        assertThat(schedulesService.getScheduleById(free.getId()).getBooked()).isFalse();
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(1);
+
+        batchBookingDTO.setScheduleIds(List.of(free.getId(), 456L));
+        assertThat(catchThrowable(() -> schedulesService.createBatchBooking(batchBookingDTO))).isInstanceOf(NotFoundException.class);
+        assertThat(schedulesService.getScheduleById(free.getId()).getBooked()).isFalse();
+
+        batchBookingDTO.setScheduleIds(List.of(free.getId(), free.getId()));
+        assertThat(catchThrowable(() -> schedulesService.createBatchBooking(batchBookingDTO)))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Batch booking contains the same schedule more than once");
+    }
+
+    @Test
+    void testHeldScheduleHiddenAndBookableOnlyWithToken() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient1 = testEntityFactory.createTestPatient();
+        Patient patient2 = testEntityFactory.createPatient("Anna", "Nowak", "anna.nowak@example.com", "123456788", LocalDate.of(1990, 1, 1), ConfirmationMethod.EMAIL);
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(1);
+
+        SlotHoldDTO hold = schedulesService.holdSchedule(new SlotHoldDTO().scheduleId(schedule.getId()).patientId(patient1.getId()));
+        assertThat(hold.getHoldToken()).isNotNull();
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(0);
+
+        Throwable holdException = catchThrowable(() -> schedulesService.holdSchedule(new SlotHoldDTO().scheduleId(schedule.getId()).patientId(patient2.getId())));
+        assertThat(holdException)
+                .isInstanceOf(NotAvailableException.class)
+                .hasMessage("Termin on " + schedule.getDay() + " at " + schedule.getStartTime() + " is held by another patient");
+
+        CreateBookingDTO otherBookingDTO = new CreateBookingDTO();
+        otherBookingDTO.setScheduleId(schedule.getId());
+        otherBookingDTO.setPatientId(patient2.getId());
+        Throwable bookingException = catchThrowable(() -> schedulesService.createBooking(otherBookingDTO));
+        assertThat(bookingException)
+                .isInstanceOf(NotAvailableException.class)
+                .hasMessage("Schedule with id " + schedule.getId() + " is held by another patient");
+
+        CreateBookingDTO withoutTokenDTO = new CreateBookingDTO();
+        withoutTokenDTO.setScheduleId(schedule.getId());
+        withoutTokenDTO.setPatientId(patient1.getId());
+        assertThat(catchThrowable(() -> schedulesService.createBooking(withoutTokenDTO))).isInstanceOf(NotAvailableException.class);
+
+        withoutTokenDTO.setHoldToken(hold.getHoldToken());
+        BookingDTO booked = schedulesService.createBooking(withoutTokenDTO);
+        assertThat(booked.getPatientId()).isEqualTo(patient1.getId());
+        assertThat(schedulesService.getScheduleById(schedule.getId()).getBooked()).isTrue();
+    }
+
+    @Test
+    void testReleasedOrExpiredHoldFreesSchedule() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+
+        SlotHoldDTO hold = schedulesService.holdSchedule(new SlotHoldDTO().scheduleId(schedule.getId()).patientId(patient.getId()));
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(0);
+        schedulesService.releaseScheduleHold(hold);
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(1);
+
+        SlotHolds expiring = new SlotHolds(Duration.ZERO, new AvailabilityVersions(10, Duration.ofMinutes(3)), new SimpleMeterRegistry());
+        assertThat(expiring.hold(schedule.getId(), doctor.getId(), patient.getId())).isPresent();
+        assertThat(expiring.hold(schedule.getId(), doctor.getId(), patient.getId() + 1)).isPresent();
+        assertThat(expiring.permits(schedule.getId(), patient.getId(), null)).isTrue();
+    }
+
+    @Test
+    void testExpiringHoldChangesFreeSchedulesETagBeforePurge() throws InterruptedException {
+        AvailabilityVersions versions = new AvailabilityVersions(10, Duration.ofMinutes(3));
+        SlotHolds expiring = new SlotHolds(Duration.ofMillis(200), versions, new SimpleMeterRegistry());
+        assertThat(expiring.hold(1L, 7L, 3L)).isPresent();
+        var held = versions.freeSchedulesETag(7L);
+        assertThat(versions.freeSchedulesETag(7L)).isEqualTo(held);
+
+        Thread.sleep(300);
+        var expired = versions.freeSchedulesETag(7L);
+        assertThat(expired).isNotEqualTo(held);
+
+        expiring.purgeExpired();
+        assertThat(versions.freeSchedulesETag(7L)).isNotIn(held, expired);
+    }
+
+    @Test
+    void testScheduleVersionsExpire() throws InterruptedException {
+        AvailabilityVersions versions = new AvailabilityVersions(10, Duration.ofMillis(200));
+        var etag = versions.scheduleLoaded(1L, 3);
+        assertThat(versions.scheduleETag(1L)).isEqualTo(etag);
+
+        Thread.sleep(300);
+        assertThat(versions.scheduleETag(1L)).isNull();
+    }
+
+    @Test
+    void testHoldOfBookedScheduleRejected() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), true);
+        Throwable exception = catchThrowable(() -> schedulesService.holdSchedule(new SlotHoldDTO().scheduleId(schedule.getId()).patientId(patient.getId())));
+        assertThat(exception)
+                .isInstanceOf(NotAvailableException.class)
+                .hasMessage("Termin on " + schedule.getDay() + " at " + schedule.getStartTime() + " is already taken");
+    }
+
+    @Test
+    void testCreateBookingScheduleDoesntExist() {
+        Patient patient = testEntityFactory.createTestPatient();
+        CreateBookingDTO newBookingDTO = new CreateBookingDTO();
+        newBookingDTO.setScheduleId(456L);
+        newBookingDTO.setPatientId(patient.getId());
+        Throwable exception = catchThrowable(() -> schedulesService.createBooking(newBookingDTO));
+        assertThat(exception)
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("Schedule not found with id " + 456L);
+    }
+
     @Test
     void testGetFreeScheduleOfDoctor() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule1 = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), true);
-        DoctorSchedule schedule2 = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 30), false);
-        DoctorSchedule schedule3 = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(14, 30), false);
+        DoctorSchedule schedule1 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), true);
+        DoctorSchedule schedule2 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 30), false);
+        DoctorSchedule schedule3 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 30), false);
         List<FreeSchedulesOfDoctorDTO> list = schedulesService.getFreeSchedulesOfDoctor(doctor.getId());
         assertThat(list.size()).isEqualTo(2);
     }
 
+    @Test
+    void testGetFreeScheduleOfDoctorFollowsMutations() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(1);
+
+        CreateBookingDTO newBookingDTO = new CreateBookingDTO();
+        newBookingDTO.setScheduleId(schedule.getId());
+        newBookingDTO.setPatientId(patient.getId());
+        schedulesService.createBooking(newBookingDTO);
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(0);
+
+        schedulesService.addDoctorSchedule(testDtoFactory.doctorScheduleDTO(doctor.getId(), LocalDate.of(2031, 7, 18), LocalTime.of(10, 30), false));
+        List<FreeSchedulesOfDoctorDTO> list = schedulesService.getFreeSchedulesOfDoctor(doctor.getId());
+        assertThat(list.size()).isEqualTo(1);
+        assertThat(list.get(0).getDay()).isEqualTo(LocalDate.of(2031, 7, 18));
+        assertThat(list.get(0).getStartTime()).isEqualTo(LocalTime.of(10, 30));
+
+        DeleteReferenceDTO toDeleteDTO = new DeleteReferenceDTO();
+        toDeleteDTO.setId(list.get(0).getScheduleId());
+        toDeleteDTO.setVersion(0);
+        schedulesService.deleteSchedule(toDeleteDTO);
+        assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()).size()).isEqualTo(0);
+    }
+
+    @Test
+    void testCreateBookingReadsDoctorAndPatientThroughEntityCache() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        entityManagerFactory.getCache().evictAll();
+        CreateBookingDTO newBookingDTO = new CreateBookingDTO();
+        newBookingDTO.setScheduleId(schedule.getId());
+        newBookingDTO.setPatientId(patient.getId());
+        schedulesService.createBooking(newBookingDTO);
+        assertThat(entityManagerFactory.getCache().contains(Patient.class, patient.getId())).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Doctor.class, doctor.getId())).isTrue();
+    }
+
+    @Test
+    void testGetFreeScheduleOfDoctorPatchedInsteadOfReloaded() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule1 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule schedule2 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(15, 0), false);
+        List<FreeSchedulesOfDoctorDTO> before = schedulesService.getFreeSchedulesOfDoctor(doctor.getId());
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 19), LocalTime.of(10, 0), false);
+
+        doNothing().when(kafkaProducerService).getScheduleData(any(DoctorSchedule.class), any(Patient.class));
+        CreateBookingDTO newBookingDTO = new CreateBookingDTO();
+        newBookingDTO.setScheduleId(schedule2.getId());
+        newBookingDTO.setPatientId(patient.getId());
+        schedulesService.createBooking(newBookingDTO);
+
+        DoctorScheduleSingleDTO moved = schedulesService.getScheduleById(schedule1.getId());
+        moved.setDay(LocalDate.of(2031, 7, 18));
+        schedulesService.updateSingleSchedule(moved);
+
+        DoctorScheduleSingleDTO unbooked = schedulesService.getScheduleById(schedule2.getId());
+        unbooked.setBooked(true);
+        schedulesService.updateSingleSchedule(unbooked);
+
+        assertThat(before.size()).isEqualTo(2);
+        Assertions.assertThat(schedulesService.getFreeSchedulesOfDoctor(doctor.getId()))
+                .extracting(FreeSchedulesOfDoctorDTO::getScheduleId)
+                .containsExactly(schedule2.getId(), schedule1.getId());
+    }
+
+    @Test
+    void testUpdateScheduleMovedOntoExistingSlot() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        DoctorSchedule schedule1 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule schedule2 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(15, 0), false);
+        DoctorScheduleSingleDTO foundSchedule = schedulesService.getScheduleById(schedule2.getId());
+        foundSchedule.setStartTime(LocalTime.of(16, 0));
+        schedulesService.updateSingleSchedule(foundSchedule);
+        DoctorScheduleSingleDTO movedSchedule = schedulesService.getScheduleById(schedule2.getId());
+        movedSchedule.setStartTime(schedule1.getStartTime());
+        Throwable exception = catchThrowable(() -> schedulesService.updateSingleSchedule(movedSchedule));
+        assertThat(exception)
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Doctor already has a schedule at " + schedule1.getStartTime() + " on " + schedule1.getDay());
+    }
+
     @Test
     void testGetFreeScheduleOfDoctorWrongDoctor() {
         Throwable exception = catchThrowable(() -> schedulesService.getFreeSchedulesOfDoctor(63L));
@@ -254,26 +605,143 @@ public class ScheduleServiceTest {
     @Test
     void testGetFreeScheduleByCriteria() {
         Doctor doctor = testEntityFactory.createTestDoctor();
-        DoctorSchedule schedule1 = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 16), LocalTime.of(14, 0), true);
-        DoctorSchedule schedule2 = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(16, 30), false);
-        DoctorSchedule schedule3 = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 17), LocalTime.of(17, 30), false);
-        DoctorSchedule schedule4 = testEntityFactory.createSchedule(doctor, LocalDate.of(2025, 7, 18), LocalTime.of(14, 30), false);
+        DoctorSchedule schedule1 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 16), LocalTime.of(14, 0), true);
+        DoctorSchedule schedule2 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(16, 30), false);
+        DoctorSchedule schedule3 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(17, 30), false);
+        DoctorSchedule schedule4 = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 18), LocalTime.of(14, 30), false);
         ScheduleCriteriaReqDTO criteria = new ScheduleCriteriaReqDTO();
         criteria.setSpecialisation(String.valueOf((CARDIOLOGIST)));
-        criteria.setStartDay(LocalDate.of(2025, 7, 16));
-        criteria.setEndDay(LocalDate.of(2025, 7, 17));
+        criteria.setStartDay(LocalDate.of(2031, 7, 16));
+        criteria.setEndDay(LocalDate.of(2031, 7, 17));
         criteria.setStartTime(LocalTime.of(16, 0));
         criteria.setEndTime(LocalTime.of(18, 0));
         List<ScheduleCriteriaReturnDTO> list = schedulesService.getSchedulesByCriteria(criteria);
         assertThat(list.size()).isEqualTo(2);
     }
 
+    @Test
+    void testGetScheduleByCriteriaCachedUntilMatchingSlotChanges() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Doctor surgeon = testEntityFactory.createDoctor("Ewa", "Lis", "ewa.lis@example.com", "555666777", LocalDate.of(1980, 1, 1), SURGEON);
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(16, 30), false);
+        DoctorSchedule surgeonSchedule = testEntityFactory.createSchedule(surgeon, LocalDate.of(2031, 7, 17), LocalTime.of(16, 30), false);
+        ScheduleCriteriaReqDTO criteria = new ScheduleCriteriaReqDTO();
+        criteria.setSpecialisation(String.valueOf((CARDIOLOGIST)));
+        criteria.setStartDay(LocalDate.of(2031, 7, 16));
+        criteria.setEndDay(LocalDate.of(2031, 7, 17));
+        criteria.setStartTime(LocalTime.of(16, 0));
+        criteria.setEndTime(LocalTime.of(18, 0));
+        assertThat(schedulesService.getSchedulesByCriteria(criteria).size()).isEqualTo(1);
+
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(17, 0), false);
+        assertThat(schedulesService.getSchedulesByCriteria(criteria).size()).isEqualTo(1);
+
+        doNothing().when(kafkaProducerService).getScheduleData(any(DoctorSchedule.class), any(Patient.class));
+        CreateBookingDTO surgeonBookingDTO = new CreateBookingDTO();
+        surgeonBookingDTO.setScheduleId(surgeonSchedule.getId());
+        surgeonBookingDTO.setPatientId(patient.getId());
+        schedulesService.createBooking(surgeonBookingDTO);
+        assertThat(schedulesService.getSchedulesByCriteria(criteria).size()).isEqualTo(1);
+
+        CreateBookingDTO newBookingDTO = new CreateBookingDTO();
+        newBookingDTO.setScheduleId(schedule.getId());
+        newBookingDTO.setPatientId(patient.getId());
+        schedulesService.createBooking(newBookingDTO);
+        Assertions.assertThat(schedulesService.getSchedulesByCriteria(criteria)).extracting(ScheduleCriteriaReturnDTO::getStartTime)
+                .containsExactly(LocalTime.of(16, 30), LocalTime.of(17, 0));
+    }
+
+    @Test
+    void testGetScheduleByCriteriaKeysetPages() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(16, 30), false);
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 16), LocalTime.of(14, 0), true);
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(10, 0), false);
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 18), LocalTime.of(14, 30), false);
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(16, 30), false);
+        ScheduleCriteriaReqDTO criteria = new ScheduleCriteriaReqDTO();
+        criteria.setSpecialisation(String.valueOf((CARDIOLOGIST)));
+        criteria.setStartDay(LocalDate.of(2031, 7, 16));
+        criteria.setEndDay(LocalDate.of(2031, 7, 18));
+        criteria.setLimit(2);
+
+        List<ScheduleCriteriaReturnDTO> all = new ArrayList<>();
+        List<ScheduleCriteriaReturnDTO> page = schedulesService.getSchedulesByCriteria(criteria);
+        while (!page.isEmpty()) {
+            assertThat(page.size()).isLessThanOrEqualTo(2);
+            all.addAll(page);
+            ScheduleCriteriaReturnDTO last = page.get(page.size() - 1);
+            criteria.setAfterDay(last.getDay());
+            criteria.setAfterStartTime(last.getStartTime());
+            criteria.setAfterScheduleId(last.getScheduleId());
+            page = schedulesService.getSchedulesByCriteria(criteria);
+        }
+
+        assertThat(all.size()).isEqualTo(5);
+        Assertions.assertThat(all).extracting(ScheduleCriteriaReturnDTO::getStartTime)
+                .containsExactly(LocalTime.of(14, 0), LocalTime.of(10, 0), LocalTime.of(16, 30), LocalTime.of(16, 30), LocalTime.of(14, 30));
+        assertThat(all.get(2).getScheduleId()).isLessThan(all.get(3).getScheduleId());
+    }
+
+    @Test
+    void testGetScheduleByCriteriaIncompleteCursor() {
+        ScheduleCriteriaReqDTO criteria = new ScheduleCriteriaReqDTO();
+        criteria.setSpecialisation(String.valueOf((CARDIOLOGIST)));
+        criteria.setStartDay(LocalDate.of(2031, 7, 16));
+        criteria.setEndDay(LocalDate.of(2031, 7, 18));
+        criteria.setAfterDay(LocalDate.of(2031, 7, 16));
+        Throwable exception = catchThrowable(() -> schedulesService.getSchedulesByCriteria(criteria));
+        assertThat(exception)
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Cursor requires afterDay, afterStartTime and afterScheduleId");
+    }
+    @Test
+    void testReactiveReadsOffCallerThreadOnlyOnMiss() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), true);
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2031, 7, 17), LocalTime.of(16, 30), false);
+        ScheduleCriteriaReqDTO criteria = new ScheduleCriteriaReqDTO();
+        criteria.setSpecialisation(String.valueOf((CARDIOLOGIST)));
+        criteria.setStartDay(LocalDate.of(2031, 7, 17));
+        criteria.setEndDay(LocalDate.of(2031, 7, 17));
+        criteria.setStartTime(LocalTime.of(16, 0));
+        criteria.setEndTime(LocalTime.of(18, 0));
+        String caller = Thread.currentThread().getName();
+
+        StepVerifier.create(reactiveScheduleService.getFreeSchedulesOfDoctor(doctor.getId())
+                        .map(list -> Thread.currentThread().getName() + ":" + list.size()))
+                .assertNext(result -> assertThat(result).startsWith("schedule-reads").isNotEqualTo(caller).endsWith(":1"))
+                .verifyComplete();
+        StepVerifier.create(reactiveScheduleService.getFreeSchedulesOfDoctor(doctor.getId())
+                        .map(list -> Thread.currentThread().getName() + ":" + list.size()))
+                .assertNext(result -> assertThat(result).isEqualTo(caller + ":1"))
+                .verifyComplete();
+        StepVerifier.create(reactiveScheduleService.getSchedulesByCriteria(criteria)
+                        .map(list -> Thread.currentThread().getName() + ":" + list.size()))
+                .assertNext(result -> assertThat(result).startsWith("schedule-reads").endsWith(":1"))
+                .verifyComplete();
+        StepVerifier.create(reactiveScheduleService.getSchedulesByCriteria(criteria)
+                        .map(list -> Thread.currentThread().getName() + ":" + list.size()))
+                .assertNext(result -> assertThat(result).isEqualTo(caller + ":1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testReactiveReadsSignalErrors() {
+        StepVerifier.create(reactiveScheduleService.getFreeSchedulesOfDoctor(63L))
+                .expectErrorSatisfies(exception -> assertThat(exception)
+                        .isInstanceOf(NotFoundException.class)
+                        .hasMessage("Doctor not found with id " + 63L))
+                .verify();
+    }
+
     @Test
     void testGetFreeScheduleByCriteriaBadTimeCriteria() {
         ScheduleCriteriaReqDTO criteria = new ScheduleCriteriaReqDTO();
         criteria.setSpecialisation(String.valueOf((CARDIOLOGIST)));
-        criteria.setStartDay(LocalDate.of(2025, 7, 22));
-        criteria.setEndDay(LocalDate.of(2025, 7, 23));
+        criteria.setStartDay(LocalDate.of(2031, 7, 22));
+        criteria.setEndDay(LocalDate.of(2031, 7, 23));
         criteria.setStartTime(LocalTime.of(16, 0));
         criteria.setEndTime(LocalTime.of(15, 0));
         Throwable exception = catchThrowable(() -> schedulesService.getSchedulesByCriteria(criteria));
@@ -286,8 +754,8 @@ public class ScheduleServiceTest {
     void testGetFreeScheduleByCriteriaBadDayCriteria() {
         ScheduleCriteriaReqDTO criteria = new ScheduleCriteriaReqDTO();
         criteria.setSpecialisation(String.valueOf((CARDIOLOGIST)));
-        criteria.setStartDay(LocalDate.of(2025, 8, 19));
-        criteria.setEndDay(LocalDate.of(2025, 8, 17));
+        criteria.setStartDay(LocalDate.of(2031, 8, 19));
+        criteria.setEndDay(LocalDate.of(2031, 8, 17));
         criteria.setStartTime(LocalTime.of(11, 0));
         criteria.setEndTime(LocalTime.of(15, 0));
         Throwable exception = catchThrowable(() -> schedulesService.getSchedulesByCriteria(criteria));
@@ -0,0 +1,230 @@
+package org.example.bookingsystemapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.entities.Patient;
+import org.example.bookingsystemapp.model.CreateBookingDTO;
+import org.example.bookingsystemapp.model.DeleteReferenceDTO;
+import org.example.bookingsystemapp.model.SlotUpdateDTO;
+import org.example.bookingsystemapp.repositories.BookingOutboxRepository;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.PatientRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.security.StompAuthenticationInterceptor;
+import org.example.bookingsystemapp.service.SchedulesService;
+import org.example.bookingsystemapp.service.help.SlotUpdates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class SlotUpdatesTest {
+
+    @TestConfiguration
+    static class Tokens {
+        @Bean
+        JwtDecoder jwtDecoder() {
+            return token -> Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .subject(token)
+                    .claim("realm_access.roles", List.of("ROLE_" + token.toUpperCase()))
+                    .build();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SchedulesService schedulesService;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private SimpleBrokerMessageHandler simpleBrokerMessageHandler;
+
+    @Autowired
+    private StompAuthenticationInterceptor stompAuthenticationInterceptor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    TestEntityFactory testEntityFactory;
+
+    private WebSocketStompClient stompClient;
+
+    @BeforeEach
+    void setUp() {
+        bookingOutboxRepository.deleteAll();
+        scheduleRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+
+        var converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(converter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stompClient.stop();
+    }
+
+    @Test
+    void testBookedAndRemovedSlotsPushedToSubscribers() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule booked = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+        DoctorSchedule removed = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 30), false);
+        var doctorTopic = SlotUpdates.DOCTOR_TOPIC + doctor.getId();
+        var dayTopic = SlotUpdates.DAY_TOPIC + doctor.getSpecialisation() + "/2030-07-17";
+
+        StompSession session = connect("patient");
+        BlockingQueue<SlotUpdateDTO> doctorUpdates = subscribe(session, doctorTopic);
+        BlockingQueue<SlotUpdateDTO> dayUpdates = subscribe(session, dayTopic);
+
+        CreateBookingDTO bookingDTO = new CreateBookingDTO();
+        bookingDTO.setScheduleId(booked.getId());
+        bookingDTO.setPatientId(patient.getId());
+        schedulesService.createBooking(bookingDTO);
+        DeleteReferenceDTO deleteDTO = new DeleteReferenceDTO();
+        deleteDTO.setId(removed.getId());
+        deleteDTO.setVersion(removed.getVersion());
+        schedulesService.deleteSchedule(deleteDTO);
+
+        for (var updates : List.of(doctorUpdates, dayUpdates)) {
+            assertThat(updates.poll(5, TimeUnit.SECONDS)).satisfies(update -> {
+                assertThat(update.getType()).isEqualTo(SlotUpdateDTO.Type.BOOKED);
+                assertThat(update.getScheduleId()).isEqualTo(booked.getId());
+                assertThat(update.getDoctorId()).isEqualTo(doctor.getId());
+                assertThat(update.getStartTime()).isEqualTo(LocalTime.of(14, 0));
+            });
+            assertThat(updates.poll(5, TimeUnit.SECONDS)).satisfies(update -> {
+                assertThat(update.getType()).isEqualTo(SlotUpdateDTO.Type.REMOVED);
+                assertThat(update.getScheduleId()).isEqualTo(removed.getId());
+            });
+        }
+    }
+
+    @Test
+    void testOnlyPatientsMayConnect() {
+        Throwable exception = catchThrowable(() -> connect("doctor"));
+
+        assertThat(exception).isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    void testSubscribeWithoutAuthenticatedConnectRejected() {
+        var accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(SlotUpdates.DOCTOR_TOPIC + 1);
+        accessor.setSubscriptionId("0");
+        accessor.setLeaveMutable(true);
+        var subscribe = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        Throwable exception = catchThrowable(() -> stompAuthenticationInterceptor.preSend(subscribe, null));
+
+        assertThat(exception)
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasMessage("Subscribing requires an authenticated CONNECT");
+    }
+
+    @Test
+    void testForeignOriginHandshakeRejected() {
+        var handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.setOrigin("https://elsewhere.example");
+
+        Throwable exception = catchThrowable(() -> connect("patient", handshakeHeaders));
+
+        assertThat(exception).isInstanceOf(ExecutionException.class);
+    }
+
+    private StompSession connect(String token) throws Exception {
+        return connect(token, new WebSocketHttpHeaders());
+    }
+
+    private StompSession connect(String token, WebSocketHttpHeaders handshakeHeaders) throws Exception {
+        var connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return stompClient.connectAsync("ws://localhost:" + port + "/ws/slots", handshakeHeaders, connectHeaders,
+                        new StompSessionHandlerAdapter() {
+                        })
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private BlockingQueue<SlotUpdateDTO> subscribe(StompSession session, String destination) throws InterruptedException {
+        BlockingQueue<SlotUpdateDTO> updates = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return SlotUpdateDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                updates.add((SlotUpdateDTO) payload);
+            }
+        });
+        awaitSubscription(destination);
+        return updates;
+    }
+
+    private void awaitSubscription(String destination) throws InterruptedException {
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        var message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (simpleBrokerMessageHandler.getSubscriptionRegistry().findSubscriptions(message).isEmpty()) {
+            assertThat(System.nanoTime()).as("subscription to %s", destination).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.bookingsystemapp;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.bookingsystemapp.config.QueryCountConfig;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.entities.Patient;
+import org.example.bookingsystemapp.repositories.BookingOutboxRepository;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.PatientRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.service.help.FreeSchedulesCache;
+import org.example.bookingsystemapp.service.help.ScheduleCriteriaCache;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the hot endpoints. A change that adds round trips to one of them fails here;
+ * raise a budget only together with the reason in the commit.
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class StatementBudgetTest {
+
+    @TestConfiguration
+    static class Tokens {
+        @Bean
+        JwtDecoder jwtDecoder() {
+            return token -> Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .subject("budget")
+                    .claim("realm_access.roles", List.of("ROLE_PATIENT", "ROLE_DOCTOR"))
+                    .build();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private ScheduleCriteriaCache scheduleCriteriaCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    TestEntityFactory testEntityFactory;
+
+    @BeforeEach
+    void cleanUp() {
+        bookingOutboxRepository.deleteAll();
+        scheduleRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+        scheduleCriteriaCache.invalidateAll();
+    }
+
+    @Test
+    void testGetScheduleBudget() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), true);
+
+        assertStatements(get("/api/schedule/{id}", schedule.getId()), 1);
+    }
+
+    @Test
+    void testGetFreeSchedulesBudget() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        for (int i = 0; i < 20; i++) {
+            testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17).plusDays(i), LocalTime.of(14, 0), false);
+        }
+
+        assertStatements(get("/api/schedule/free/{doctorId}", doctor.getId()), 2);
+        assertStatements(get("/api/schedule/free/{doctorId}", doctor.getId()), 0);
+    }
+
+    @Test
+    void testGetSchedulesByCriteriaBudget() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        for (int i = 0; i < 20; i++) {
+            testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(10, 0).plusMinutes(30L * i), false);
+        }
+        var criteria = """
+                {"specialisation": "%s", "startDay": "2030-07-17", "endDay": "2030-07-17"}
+                """.formatted(doctor.getSpecialisation());
+
+        assertStatements(post("/api/schedule/criteria").contentType(MediaType.APPLICATION_JSON).content(criteria), 1);
+    }
+
+    @Test
+    void testCreateBookingBudget() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+        var booking = """
+                {"scheduleId": %s, "patientId": %s}
+                """.formatted(schedule.getId(), patient.getId());
+        // inserted rows skip the entity cache; the first reads put doctor and patient there, as in steady state
+        doctorRepository.findById(doctor.getId());
+        patientRepository.findById(patient.getId());
+
+        assertStatements(put("/api/schedule/book").contentType(MediaType.APPLICATION_JSON).content(booking), 3);
+    }
+
+    @Test
+    void testCreateBatchBookingBudget() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        var scheduleIds = new ArrayList<Long>();
+        for (int i = 0; i < 10; i++) {
+            scheduleIds.add(testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17).plusDays(i), LocalTime.of(14, 0), false).getId());
+        }
+        var booking = """
+                {"patientId": %s, "scheduleIds": %s}
+                """.formatted(patient.getId(), scheduleIds);
+        // inserted rows skip the entity cache; the first read puts the patient there, as in steady state
+        patientRepository.findById(patient.getId());
+
+        assertStatements(put("/api/schedule/book/batch").contentType(MediaType.APPLICATION_JSON).content(booking), 3);
+    }
+
+    @Test
+    void testConditionalGetScheduleAnsweredWithoutStatements() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+        var etag = assertStatements(get("/api/schedule/{id}", schedule.getId()), 1).getResponse().getHeader("ETag");
+
+        assertNotModified(get("/api/schedule/{id}", schedule.getId()).header("If-None-Match", etag));
+
+        var booking = """
+                {"scheduleId": %s, "patientId": %s}
+                """.formatted(schedule.getId(), patient.getId());
+        assertStatements(put("/api/schedule/book").contentType(MediaType.APPLICATION_JSON).content(booking), 5);
+        var changed = assertStatements(get("/api/schedule/{id}", schedule.getId()).header("If-None-Match", etag), 1);
+        assertThat(changed.getResponse().getHeader("ETag")).isNotEqualTo(etag);
+    }
+
+    @Test
+    void testConditionalGetFreeSchedulesAnsweredWithoutStatements() throws Exception {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        Patient patient = testEntityFactory.createTestPatient();
+        DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+        var etag = assertStatements(get("/api/schedule/free/{doctorId}", doctor.getId()), 2).getResponse().getHeader("ETag");
+        // a cold cache would cost two statements; the validator alone decides
+        cacheManager.getCache(FreeSchedulesCache.NAME).clear();
+
+        assertNotModified(get("/api/schedule/free/{doctorId}", doctor.getId()).header("If-None-Match", etag));
+
+        var hold = """
+                {"scheduleId": %s, "patientId": %s}
+                """.formatted(schedule.getId(), patient.getId());
+        assertStatements(put("/api/schedule/hold").contentType(MediaType.APPLICATION_JSON).content(hold), 2);
+        var held = assertStatements(get("/api/schedule/free/{doctorId}", doctor.getId()).header("If-None-Match", etag), 2);
+        assertThat(held.getResponse().getHeader("ETag")).isNotEqualTo(etag);
+        assertThat(held.getResponse().getContentAsString()).isEqualTo("[]");
+    }
+
+    @Test
+    void testDoctorHashCodeLeavesSchedulesUnloaded() {
+        Doctor doctor = testEntityFactory.createTestDoctor();
+        testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var loaded = entityManager.find(Doctor.class, doctor.getId());
+            assertThat(loaded.hashCode()).isEqualTo(loaded.hashCode());
+            assertThat(loaded).isEqualTo(loaded);
+            assertThat(Hibernate.isInitialized(loaded.getDoctorSchedule())).isFalse();
+        });
+    }
+
+    private MvcResult assertStatements(MockHttpServletRequestBuilder request, int budget) throws Exception {
+        MvcResult result = mockMvc.perform(request.header("Authorization", "Bearer budget"))
+                .andExpect(status().isOk())
+                .andReturn();
+        var statements = Integer.parseInt(result.getResponse().getHeader(QueryCountConfig.QUERY_COUNT_HEADER));
+        assertThat(statements)
+                .as("SQL statements of %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(budget);
+        return result;
+    }
+
+    private void assertNotModified(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request.header("Authorization", "Bearer budget"))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertThat(result.getResponse().getContentLength()).isZero();
+        assertThat(result.getResponse().getHeader(QueryCountConfig.QUERY_COUNT_HEADER)).isEqualTo("0");
+    }
+}
@@ -7,6 +7,7 @@ import org.example.bookingsystemapp.model.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.example.bookingsystemapp.entities.ConfirmationMethod.SMS;
 import static org.example.bookingsystemapp.entities.Specialisation.CARDIOLOGIST;
@@ -91,7 +92,18 @@ public class TestDtoFactory {
     }
 
     public DoctorScheduleDTO createDoctorScheduleDTO(Long doctorId) {
-        return doctorScheduleDTO(doctorId, LocalDate.of(2025, 7, 17), LocalTime.of(14, 0), false);
+        return doctorScheduleDTO(doctorId, LocalDate.of(2031, 7, 17), LocalTime.of(14, 0), false);
+    }
+
+    public RecurringScheduleDTO recurringScheduleDTO(Long doctorId, List<String> daysOfWeek, LocalTime startTime, LocalTime endTime, LocalDate startDay, int weeks) {
+        RecurringScheduleDTO dto = new RecurringScheduleDTO();
+        dto.setDoctorId(doctorId);
+        dto.setDaysOfWeek(daysOfWeek);
+        dto.setStartTime(startTime);
+        dto.setEndTime(endTime);
+        dto.setStartDay(startDay);
+        dto.setWeeks(weeks);
+        return dto;
     }
 
 }
@@ -0,0 +1,127 @@
+package org.example.bookingsystemapp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bookingsystemapp.config.VirtualThreadPinningMonitor;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@Slf4j
+public class VirtualThreadThroughputTest {
+
+    private static final int CONNECTIONS = 2_000;
+    private static final int REQUESTS_PER_CONNECTION = 2;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testPinningMonitorFollowsExecutionMode(boolean virtualThreads) {
+        new ApplicationContextRunner()
+                .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withBean(SimpleMeterRegistry.class)
+                .withUserConfiguration(VirtualThreadPinningMonitor.class)
+                .withPropertyValues("spring.threads.virtual.enabled=" + virtualThreads)
+                .run(context -> assertThat(context.getBeanProvider(VirtualThreadPinningMonitor.class).getIfAvailable() != null)
+                        .isEqualTo(virtualThreads));
+    }
+
+    @Tag("benchmark")
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testRequestsPerSecondAtTwoThousandConnections(boolean virtualThreads) throws Exception {
+        try (var context = new SpringApplicationBuilder(BookingSystemAppApplication.class)
+                .profiles("test")
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+                        .registerBean(JwtDecoder.class, () -> token -> Jwt.withTokenValue(token)
+                                .header("alg", "none")
+                                .subject("patient")
+                                .claim("realm_access.roles", List.of("ROLE_PATIENT"))
+                                .build()))
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.springframework=INFO",
+                        "--logging.level.org.springframework.security=INFO",
+                        "--logging.level.org.hibernate.SQL=INFO")) {
+
+            var testEntityFactory = context.getBean(TestEntityFactory.class);
+            Doctor doctor = testEntityFactory.createTestDoctor();
+            DoctorSchedule schedule = testEntityFactory.createSchedule(doctor, LocalDate.of(2030, 7, 17), LocalTime.of(14, 0), false);
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:%s/api/schedule/%s"
+                            .formatted(context.getEnvironment().getProperty("local.server.port"), schedule.getId())))
+                    .header("Authorization", "Bearer load-test")
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+
+            AtomicInteger ok = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> clients = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient httpClient = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .executor(executor)
+                         .build()) {
+                for (int c = 0; c < CONNECTIONS; c++) {
+                    clients.add(executor.submit(() -> {
+                        start.await();
+                        for (int r = 0; r < REQUESTS_PER_CONNECTION; r++) {
+                            if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                                ok.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                long begin = System.nanoTime();
+                start.countDown();
+                for (Future<?> client : clients) {
+                    client.get();
+                }
+                double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+                log.info("Throughput benchmark: virtualThreads={}, connections={}, requests/sec={}, failed={}, pinned={}",
+                        virtualThreads, CONNECTIONS, Math.round(ok.get() / seconds), failed.get(),
+                        context.getBean(MeterRegistry.class).find("bookingapp.virtual-threads.pinned").timers().stream()
+                                .mapToLong(Timer::count)
+                                .sum());
+            } finally {
+                context.getBean(ScheduleRepository.class).deleteById(schedule.getId());
+                context.getBean(DoctorRepository.class).deleteById(doctor.getId());
+            }
+
+            assertThat(ok.get() + failed.get()).isEqualTo(CONNECTIONS * REQUESTS_PER_CONNECTION);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.bookingsystemapp.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.bookingsystemapp.entities.ConfirmationMethod;
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.entities.Patient;
+import org.example.bookingsystemapp.entities.Specialisation;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReturnTempDTO;
+import org.example.bookingsystemapp.model.ScheduleSlotTempDTO;
+import org.example.bookingsystemapp.repositories.DoctorRepository;
+import org.example.bookingsystemapp.repositories.ScheduleRepository;
+import org.example.bookingsystemapp.service.help.SlotAvailabilityIndex;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+final class BenchmarkData {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 7);
+    static final int SLOTS_PER_DAY = 20;
+
+    private BenchmarkData() {
+    }
+
+    static Doctor doctor() {
+        return Doctor.builder()
+                .id(1L)
+                .version(0)
+                .createdAt(LocalDateTime.of(2030, 1, 1, 8, 0))
+                .firstName("Adam")
+                .lastName("Nowak")
+                .email("adam.nowak@example.com")
+                .phoneNumber("987654321")
+                .birthDate(LocalDate.of(1985, 3, 25))
+                .specialisation(Specialisation.CARDIOLOGIST)
+                .build();
+    }
+
+    static Patient patient() {
+        return Patient.builder()
+                .id(2L)
+                .version(0)
+                .createdAt(LocalDateTime.of(2030, 1, 1, 8, 0))
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .email("jan.kowalski@example.com")
+                .phoneNumber("123456789")
+                .birthDate(LocalDate.of(1990, 5, 12))
+                .confirmationMethod(ConfirmationMethod.EMAIL)
+                .build();
+    }
+
+    static DoctorSchedule schedule(Doctor doctor, Patient patient) {
+        return DoctorSchedule.builder()
+                .id(3L)
+                .version(1)
+                .createdAt(LocalDateTime.of(2030, 1, 1, 8, 0))
+                .doctor(doctor)
+                .patient(patient)
+                .day(FIRST_DAY)
+                .startTime(LocalTime.of(14, 0))
+                .booked(patient != null)
+                .build();
+    }
+
+    static List<ScheduleCriteriaReturnTempDTO> criteriaRows(int rows) {
+        var result = new ArrayList<ScheduleCriteriaReturnTempDTO>(rows);
+        for (int i = 0; i < rows; i++) {
+            result.add(new ScheduleCriteriaReturnTempDTO((long) i, (long) (i % 50), "Nowak", Specialisation.CARDIOLOGIST,
+                    FIRST_DAY.plusDays(i / SLOTS_PER_DAY), startTime(i), i % 3 == 0));
+        }
+        return result;
+    }
+
+    static List<ScheduleSlotTempDTO> slotRows(int rows) {
+        var result = new ArrayList<ScheduleSlotTempDTO>(rows);
+        for (int i = 0; i < rows; i++) {
+            result.add(new ScheduleSlotTempDTO((long) i, FIRST_DAY.plusDays(i / SLOTS_PER_DAY), startTime(i), i % 3 == 0));
+        }
+        return result;
+    }
+
+    static SlotAvailabilityIndex slotIndex(List<ScheduleSlotTempDTO> rows) {
+        var doctorRepository = repository(DoctorRepository.class, (method, args) ->
+                method.getName().equals("existsById") ? Boolean.TRUE : null);
+        var scheduleRepository = scheduleRepository(rows);
+        return new SlotAvailabilityIndex(doctorRepository, scheduleRepository, 10_000, Duration.ofHours(1), new SimpleMeterRegistry());
+    }
+
+    static ScheduleRepository scheduleRepository(List<ScheduleSlotTempDTO> rows) {
+        return repository(ScheduleRepository.class, (method, args) -> switch (method.getName()) {
+            case "findSlotsOfDoctor" -> rows;
+            case "findSlotsOfDoctorBetween" -> rows.stream()
+                    .filter(row -> !row.getDay().isBefore((LocalDate) args[1]) && !row.getDay().isAfter((LocalDate) args[2]))
+                    .toList();
+            default -> null;
+        });
+    }
+
+    static List<DoctorSchedule> freeSchedules(Doctor doctor, List<ScheduleSlotTempDTO> rows) {
+        return rows.stream()
+                .filter(row -> !row.isBooked())
+                .map(row -> (DoctorSchedule) DoctorSchedule.builder()
+                        .id(row.getScheduleId())
+                        .version(0)
+                        .doctor(doctor)
+                        .day(row.getDay())
+                        .startTime(row.getStartTime())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Repositories are interfaces backed by Spring Data at runtime; the benchmarks only need the few
+     * read methods the measured code calls, so a dynamic proxy answers those and fails on anything else.
+     */
+    private static <T> T repository(Class<T> type, BiFunction<Method, Object[], Object> answers) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            var answer = answers.apply(method, args);
+            if (answer == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return answer;
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static LocalTime startTime(int i) {
+        return LocalTime.of(10, 0).plusMinutes(30L * (i % SLOTS_PER_DAY));
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.bookingsystemapp.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.bookingsystemapp.mapper.DoctorMapperImpl;
+import org.example.bookingsystemapp.mapper.SchedulesMapperImpl;
+import org.example.bookingsystemapp.model.DoctorDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReqDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReturnDTO;
+import org.openapitools.jackson.nullable.JsonNullableModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson set up the way Spring Boot configures it for the app (java.time as ISO strings, JsonNullable support).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "500"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<ScheduleCriteriaReturnDTO> criteriaPage;
+    private DoctorDTO doctorDTO;
+    private String criteriaRequestJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new JsonNullableModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        var schedulesMapper = new SchedulesMapperImpl();
+        criteriaPage = BenchmarkData.criteriaRows(rows).stream()
+                .map(schedulesMapper::toScheduleCriteriaReturnDTO)
+                .toList();
+        doctorDTO = new DoctorMapperImpl().toDoctorDTO(BenchmarkData.doctor());
+
+        var criteria = new ScheduleCriteriaReqDTO();
+        criteria.setStartDay(BenchmarkData.FIRST_DAY);
+        criteria.setEndDay(BenchmarkData.FIRST_DAY.plusDays(30));
+        criteria.setSpecialisation("CARDIOLOGIST");
+        criteriaRequestJson = objectMapper.writeValueAsString(criteria);
+    }
+
+    @Benchmark
+    public byte[] serializeCriteriaPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(criteriaPage);
+    }
+
+    @Benchmark
+    public byte[] serializeDoctor() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(doctorDTO);
+    }
+
+    @Benchmark
+    public ScheduleCriteriaReqDTO deserializeCriteriaRequest() throws JsonProcessingException {
+        return objectMapper.readValue(criteriaRequestJson, ScheduleCriteriaReqDTO.class);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.bookingsystemapp.benchmarks;
+
+import org.example.bookingsystemapp.entities.Doctor;
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.mapper.DoctorMapper;
+import org.example.bookingsystemapp.mapper.DoctorMapperImpl;
+import org.example.bookingsystemapp.mapper.SchedulesMapper;
+import org.example.bookingsystemapp.mapper.SchedulesMapperImpl;
+import org.example.bookingsystemapp.model.BookingDTO;
+import org.example.bookingsystemapp.model.DoctorCreateDTO;
+import org.example.bookingsystemapp.model.DoctorDTO;
+import org.example.bookingsystemapp.model.DoctorScheduleSingleDTO;
+import org.example.bookingsystemapp.model.SingleTerminDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private SchedulesMapper schedulesMapper;
+    private DoctorMapper doctorMapper;
+    private Doctor doctor;
+    private DoctorSchedule bookedSchedule;
+    private SingleTerminDTO termin;
+    private DoctorCreateDTO doctorCreateDTO;
+
+    @Setup
+    public void setUp() {
+        schedulesMapper = new SchedulesMapperImpl();
+        doctorMapper = new DoctorMapperImpl();
+        doctor = BenchmarkData.doctor();
+        bookedSchedule = BenchmarkData.schedule(doctor, BenchmarkData.patient());
+
+        termin = new SingleTerminDTO();
+        termin.setDay(LocalDate.of(2030, 1, 7));
+        termin.setStartTime(LocalTime.of(14, 0));
+
+        doctorCreateDTO = new DoctorCreateDTO();
+        doctorCreateDTO.setFirstName("Adam");
+        doctorCreateDTO.setLastName("Nowak");
+        doctorCreateDTO.setEmail("adam.nowak@example.com");
+        doctorCreateDTO.setPhoneNumber("987654321");
+        doctorCreateDTO.setBirthDate(LocalDate.of(1985, 3, 25));
+        doctorCreateDTO.setSpecialisation("CARDIOLOGIST");
+    }
+
+    @Benchmark
+    public DoctorScheduleSingleDTO scheduleToDoctorScheduleDTO() {
+        return schedulesMapper.toDoctorScheduleDTO(bookedSchedule);
+    }
+
+    @Benchmark
+    public BookingDTO scheduleToBookingDTO() {
+        return schedulesMapper.toBookingDTO(bookedSchedule);
+    }
+
+    @Benchmark
+    public DoctorSchedule terminToDoctorSchedule() {
+        return schedulesMapper.toDoctorSchedule(termin);
+    }
+
+    @Benchmark
+    public DoctorDTO doctorToDoctorDTO() {
+        return doctorMapper.toDoctorDTO(doctor);
+    }
+
+    @Benchmark
+    public Doctor doctorCreateDTOToDoctor() {
+        return doctorMapper.toDoctor(doctorCreateDTO);
+    }
+}
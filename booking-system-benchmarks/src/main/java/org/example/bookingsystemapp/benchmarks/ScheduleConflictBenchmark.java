@@ -0,0 +1,80 @@
+package org.example.bookingsystemapp.benchmarks;
+
+import org.example.bookingsystemapp.entities.DoctorSchedule;
+import org.example.bookingsystemapp.model.SingleTerminDTO;
+import org.example.bookingsystemapp.service.help.ScheduleValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflict detection of {@code SchedulesService.addDoctorSchedule} for a doctor with many existing slots:
+ * the former per-termin scan over hydrated free schedules against the hash set built from one projection.
+ * New termins are placed after the existing ones, so neither variant stops early on a conflict.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleConflictBenchmark {
+
+    private static final Long DOCTOR_ID = 1L;
+
+    @Param({"5000"})
+    public int existing;
+
+    @Param({"1", "100"})
+    public int termins;
+
+    private ScheduleValidator scheduleValidator;
+    private List<DoctorSchedule> freeSchedules;
+    private List<SingleTerminDTO> newTermins;
+
+    @Setup
+    public void setUp() {
+        var rows = BenchmarkData.slotRows(existing);
+        scheduleValidator = new ScheduleValidator(BenchmarkData.scheduleRepository(rows), BenchmarkData.slotIndex(rows), 20_000, 500, 2000, 20);
+        freeSchedules = BenchmarkData.freeSchedules(BenchmarkData.doctor(), rows);
+
+        var firstFreeDay = BenchmarkData.FIRST_DAY.plusDays(existing / BenchmarkData.SLOTS_PER_DAY + 1);
+        newTermins = new ArrayList<>(termins);
+        for (int i = 0; i < termins; i++) {
+            var termin = new SingleTerminDTO();
+            termin.setDay(firstFreeDay.plusDays(i / BenchmarkData.SLOTS_PER_DAY));
+            termin.setStartTime(LocalTime.of(10, 0).plusMinutes(30L * (i % BenchmarkData.SLOTS_PER_DAY)));
+            termin.setBooked(false);
+            newTermins.add(termin);
+        }
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        var conflict = false;
+        for (SingleTerminDTO termin : newTermins) {
+            conflict |= freeSchedules.stream()
+                    .anyMatch(schedule -> schedule.getStartTime().equals(termin.getStartTime()) && schedule.getDay().equals(termin.getDay()));
+        }
+        return conflict;
+    }
+
+    @Benchmark
+    public List<SingleTerminDTO> hashSet() {
+        scheduleValidator.validateNoConflicts(DOCTOR_ID, newTermins);
+        return newTermins;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.bookingsystemapp.benchmarks;
+
+import org.example.bookingsystemapp.mapper.SchedulesMapper;
+import org.example.bookingsystemapp.mapper.SchedulesMapperImpl;
+import org.example.bookingsystemapp.model.FreeSchedulesOfDoctorDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReturnDTO;
+import org.example.bookingsystemapp.model.ScheduleCriteriaReturnTempDTO;
+import org.example.bookingsystemapp.service.help.SlotAvailabilityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The loops at the end of {@code SchedulesService.getSchedulesByCriteria} and {@code getFreeSchedulesOfDoctor},
+ * i.e. everything after the database (or the slot index) has produced its rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleDtoBuildingBenchmark {
+
+    private static final Long DOCTOR_ID = 1L;
+
+    @Param({"100", "2000"})
+    public int rows;
+
+    private SchedulesMapper schedulesMapper;
+    private List<ScheduleCriteriaReturnTempDTO> criteriaRows;
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+
+    @Setup
+    public void setUp() {
+        schedulesMapper = new SchedulesMapperImpl();
+        criteriaRows = BenchmarkData.criteriaRows(rows);
+        slotAvailabilityIndex = BenchmarkData.slotIndex(BenchmarkData.slotRows(rows));
+        slotAvailabilityIndex.get(DOCTOR_ID);
+    }
+
+    @Benchmark
+    public List<ScheduleCriteriaReturnDTO> schedulesByCriteria() {
+        return criteriaRows.stream()
+                .map(schedulesMapper::toScheduleCriteriaReturnDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public List<FreeSchedulesOfDoctorDTO> freeSchedulesOfDoctor() {
+        return slotAvailabilityIndex.get(DOCTOR_ID).freeSlots(BenchmarkData.FIRST_DAY).stream()
+                .map(temp -> schedulesMapper.toFreeSchedulesOfDoctorDTO(temp, DOCTOR_ID))
+                .toList();
+    }
+}
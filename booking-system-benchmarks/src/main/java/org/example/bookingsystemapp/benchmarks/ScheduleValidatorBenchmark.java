@@ -0,0 +1,79 @@
+package org.example.bookingsystemapp.benchmarks;
+
+import org.example.bookingsystemapp.model.ScheduleCriteriaReqDTO;
+import org.example.bookingsystemapp.service.help.ScheduleValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleValidatorBenchmark {
+
+    private static final Long DOCTOR_ID = 1L;
+    private static final int ROWS = 2000;
+
+    private ScheduleValidator scheduleValidator;
+    private ScheduleCriteriaReqDTO criteria;
+    private LocalTime startTime;
+    private LocalDate freeDay;
+
+    @Setup
+    public void setUp() {
+        var rows = BenchmarkData.slotRows(ROWS);
+        var slotAvailabilityIndex = BenchmarkData.slotIndex(rows);
+        scheduleValidator = new ScheduleValidator(BenchmarkData.scheduleRepository(rows), slotAvailabilityIndex, 20_000, 500, 2000, 20);
+        slotAvailabilityIndex.get(DOCTOR_ID);
+
+        criteria = new ScheduleCriteriaReqDTO();
+        criteria.setStartDay(BenchmarkData.FIRST_DAY);
+        criteria.setEndDay(BenchmarkData.FIRST_DAY.plusDays(30));
+        criteria.setStartTime(LocalTime.of(10, 0));
+        criteria.setEndTime(LocalTime.of(18, 0));
+        criteria.setSpecialisation("CARDIOLOGIST");
+        criteria.setLimit(100);
+
+        startTime = LocalTime.of(14, 30);
+        freeDay = BenchmarkData.FIRST_DAY.plusDays(ROWS / BenchmarkData.SLOTS_PER_DAY + 1);
+    }
+
+    @Benchmark
+    public void startTimeOfSchedule() {
+        scheduleValidator.validateStartTimeOfSchedule(startTime);
+    }
+
+    @Benchmark
+    public void scheduleAlreadyExists() {
+        scheduleValidator.validateIfScheduleAlreadyExists(DOCTOR_ID, startTime, freeDay, null);
+    }
+
+    @Benchmark
+    public int criteria() {
+        scheduleValidator.validateCriteriaRange(criteria);
+        return scheduleValidator.validateCriteriaPage(criteria);
+    }
+
+    @Benchmark
+    public void dayOfWeek(Blackhole blackhole) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            blackhole.consume(scheduleValidator.toDayOfWeek(day.name()));
+        }
+    }
+}
@@ -1,29 +1,91 @@
 package org.example.confirmationboot.config;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.example.confirmationboot.exception.InvalidConfirmationMethodException;
 import org.example.confirmationboot.model.BookingConfirmationClientDTO;
+import org.example.confirmationboot.service.NotificationDispatcher;
 import org.example.confirmationboot.service.NotificationService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers a batch and retries only its failed notifications, after a fixed back-off, so patients whose confirmation
+ * already went out never get it twice. A notification still failing after the retries, or with an invalid confirmation
+ * method, is logged and counted in {@code confirmation.notifications.dropped}; the batch offsets are then committed.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class KafkaConsumer {
 
     private final NotificationService notificationService;
+    private final FixedBackOff retryBackOff;
+    private final Counter dropped;
     private static final String TOPIC = "${confirmation_boot.topic}";
     private static final String GROUPID = "${confirmation_boot.groupId}";
 
+    public KafkaConsumer(NotificationService notificationService,
+                         @Value("${confirmation_boot.listener.retry-interval-ms:1000}") long retryIntervalMs,
+                         @Value("${confirmation_boot.listener.max-retries:3}") long maxRetries,
+                         MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.retryBackOff = new FixedBackOff(retryIntervalMs, maxRetries);
+        this.dropped = KafkaConsumerConfig.droppedCounter(meterRegistry);
+    }
 
     @KafkaListener(topics = TOPIC, groupId = GROUPID, containerFactory = "kafkaListenerContainerFactory")
-    public void consume(BookingConfirmationClientDTO bookingConfirmationClientDTO) {
-        log.info("Message from kafka: " + bookingConfirmationClientDTO);
+    public void consume(List<BookingConfirmationClientDTO> bookingConfirmationClientDTOs) {
+        log.info("Messages from kafka: " + bookingConfirmationClientDTOs.size());
 
-        notificationService.selectNotification(bookingConfirmationClientDTO);
+        var undelivered = undelivered(bookingConfirmationClientDTOs);
+        BackOffExecution backOff = retryBackOff.start();
+        while (!undelivered.isEmpty()) {
+            var retryable = undelivered.stream().filter(KafkaConsumer::isRetryable).toList();
+            long interval = backOff.nextBackOff();
+            if (retryable.isEmpty() || interval == BackOffExecution.STOP || !sleep(interval)) {
+                break;
+            }
+            undelivered.removeAll(retryable);
+            undelivered.addAll(undelivered(retryable.stream().map(Undelivered::dto).toList()));
+        }
+        undelivered.forEach(this::drop);
+    }
 
+    private List<Undelivered> undelivered(List<BookingConfirmationClientDTO> dtos) {
+        var undelivered = new ArrayList<Undelivered>();
+        for (NotificationDispatcher.Failure failure : notificationService.selectNotifications(dtos)) {
+            undelivered.add(new Undelivered(dtos.get(failure.index()), failure.cause()));
+        }
+        return undelivered;
     }
 
-}
+    private void drop(Undelivered undelivered) {
+        log.error("Booking confirmation for {} on {} dropped: {}", undelivered.dto().getPatientEmail(),
+                undelivered.dto().getScheduleDay(), undelivered.cause().getMessage());
+        dropped.increment();
+    }
 
+    private static boolean isRetryable(Undelivered undelivered) {
+        return !(undelivered.cause() instanceof InvalidConfirmationMethodException);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Undelivered(BookingConfirmationClientDTO dto, Throwable cause) {
+    }
+}
@@ -2,8 +2,12 @@ package org.example.confirmationboot.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.confirmationboot.exception.InvalidConfirmationMethodException;
 import org.example.confirmationboot.model.BookingConfirmationClientDTO;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -11,11 +15,15 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.Map;
 
+@Slf4j
 @Configuration
 public class KafkaConsumerConfig {
 
@@ -25,6 +33,15 @@ public class KafkaConsumerConfig {
     @Value(value = "${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value(value = "${confirmation_boot.listener.max-poll-records:200}")
+    private int maxPollRecords;
+
+    @Value(value = "${confirmation_boot.listener.retry-interval-ms:1000}")
+    private long retryIntervalMs;
+
+    @Value(value = "${confirmation_boot.listener.max-retries:3}")
+    private long maxRetries;
+
     @Bean
     public ConsumerFactory<String, BookingConfirmationClientDTO> consumerFactory() {
         ObjectMapper objectMapper = new ObjectMapper();
@@ -36,6 +53,8 @@ public class KafkaConsumerConfig {
 
         Map<String, Object> props = Map.of(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress,
                 ConsumerConfig.GROUP_ID_CONFIG, groupId,
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords,
                 ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
                 ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class,
                 ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
@@ -43,10 +62,37 @@ public class KafkaConsumerConfig {
         return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), jsonDeserializer);
     }
 
+    /**
+     * Failed notifications are retried by {@link KafkaConsumer} itself; this handler only sees errors escaping the
+     * listener, and redelivers the batch after the same fixed back-off. A batch still failing after the retries is
+     * logged and counted in {@code confirmation.notifications.dropped}.
+     */
+    @Bean
+    public DefaultErrorHandler notificationErrorHandler(MeterRegistry meterRegistry) {
+        Counter dropped = droppedCounter(meterRegistry);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler((record, e) -> {
+            log.error("Booking confirmation dropped after retries, topic {} partition {} offset {}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getMessage());
+            dropped.increment();
+        }, new FixedBackOff(retryIntervalMs, maxRetries));
+        errorHandler.addNotRetryableExceptions(InvalidConfirmationMethodException.class);
+        return errorHandler;
+    }
+
+    static Counter droppedCounter(MeterRegistry meterRegistry) {
+        return Counter.builder("confirmation.notifications.dropped")
+                .description("Booking confirmations given up after all retries")
+                .register(meterRegistry);
+    }
+
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, BookingConfirmationClientDTO> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, BookingConfirmationClientDTO> kafkaListenerContainerFactory(
+            DefaultErrorHandler notificationErrorHandler) {
         ConcurrentKafkaListenerContainerFactory<String, BookingConfirmationClientDTO> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(notificationErrorHandler);
         return factory;
     }
 
@@ -0,0 +1,21 @@
+package org.example.confirmationboot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DeliveryResult {
+
+    private String recipient;
+    private boolean delivered;
+    private String error;
+
+    public static DeliveryResult delivered(String recipient) {
+        return new DeliveryResult(recipient, true, null);
+    }
+
+    public static DeliveryResult failed(String recipient, String error) {
+        return new DeliveryResult(recipient, false, error);
+    }
+}
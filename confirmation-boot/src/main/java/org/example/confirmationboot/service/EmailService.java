@@ -3,9 +3,9 @@ package org.example.confirmationboot.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.confirmationboot.model.BookingConfirmationClientDTO;
-import org.springframework.mail.MailException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,11 +13,24 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private static final String EMAIL = "${spring.mail.username}";
+    private final SmtpTransportPool smtpTransportPool;
 
+    @Value("${spring.mail.username}")
+    private String email;
+
+    /**
+     * @throws MailSendException when the message was not delivered, so the listener can retry it
+     */
     public void sendEmail(BookingConfirmationClientDTO bookingConfirmationClientDTO) {
+        var result = smtpTransportPool.send(toMessage(bookingConfirmationClientDTO));
 
+        if (!result.isDelivered()) {
+            throw new MailSendException("Error sending email to " + result.getRecipient() + ": " + result.getError());
+        }
+        log.info("Email sent to " + result.getRecipient());
+    }
+
+    private SimpleMailMessage toMessage(BookingConfirmationClientDTO bookingConfirmationClientDTO) {
         var subject = "Confirmation of new schedule booking on " + bookingConfirmationClientDTO.getScheduleDay();
 
         var messageContent = "Booking was created successfully on %s at %s doctor %s"
@@ -25,17 +38,11 @@ public class EmailService {
                 bookingConfirmationClientDTO.getScheduleHour(),
                 bookingConfirmationClientDTO.getDoctorName());
 
-        try {
-            var message = new SimpleMailMessage();
-            message.setFrom(EMAIL);
-            message.setTo(bookingConfirmationClientDTO.getPatientEmail());
-            message.setSubject(subject);
-            message.setText(messageContent);
-            mailSender.send(message);
-
-            log.info("Email sent to " + bookingConfirmationClientDTO.getPatientEmail());
-        } catch (MailException e) {
-            log.info("Error sending email: " + e.getMessage());
-        }
+        var message = new SimpleMailMessage();
+        message.setFrom(email);
+        message.setTo(bookingConfirmationClientDTO.getPatientEmail());
+        message.setSubject(subject);
+        message.setText(messageContent);
+        return message;
     }
 }
@@ -0,0 +1,89 @@
+package org.example.confirmationboot.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs one task per notification on virtual threads, with at most {@code max-concurrency} in flight,
+ * and returns only when the whole batch has finished so the listener can commit its offsets afterwards.
+ * Failed deliveries are returned in batch order, so the listener can hand them to the container's error handler.
+ * Every delivery is timed in {@code confirmation.notifications.delivery}, tagged with its outcome.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher implements DisposableBean {
+
+    public record Failure(int index, Throwable cause) {
+    }
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final Timer delivered;
+    private final Timer failed;
+
+    public NotificationDispatcher(@Value("${confirmation_boot.dispatch.max-concurrency:32}") int maxConcurrency,
+                                  MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.delivered = deliveryTimer(meterRegistry, "delivered");
+        this.failed = deliveryTimer(meterRegistry, "failed");
+    }
+
+    public <T> List<Failure> dispatchAll(List<T> items, Consumer<T> action) {
+        var futures = new ArrayList<Future<?>>(items.size());
+        for (T item : items) {
+            permits.acquireUninterruptibly();
+            futures.add(executor.submit(() -> {
+                long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    action.accept(item);
+                    success = true;
+                } finally {
+                    (success ? delivered : failed).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    permits.release();
+                }
+            }));
+        }
+
+        var failures = new ArrayList<Failure>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (ExecutionException e) {
+                failures.add(new Failure(i, e.getCause()));
+                log.error("Notification failed: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while dispatching notifications", e);
+            }
+        }
+        return failures;
+    }
+
+    private static Timer deliveryTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("confirmation.notifications.delivery")
+                .description("Time spent delivering one booking confirmation")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
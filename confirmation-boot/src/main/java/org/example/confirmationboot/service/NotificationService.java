@@ -7,12 +7,15 @@ import org.example.confirmationboot.notification.EmailNotificationStrategy;
 import org.example.confirmationboot.notification.SmsNotificationStrategy;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
     private final EmailNotificationStrategy emailNotificationStrategy;
     private final SmsNotificationStrategy smsNotificationStrategy;
+    private final NotificationDispatcher notificationDispatcher;
 
     public void selectNotification(BookingConfirmationClientDTO bookingConfirmationClientDTO) {
         ConfirmationMethod method = ConfirmationMethod.getConfirmationMethod(bookingConfirmationClientDTO.getConfirmationMethod());
@@ -22,4 +25,8 @@ public class NotificationService {
             case EMAIL -> emailNotificationStrategy.sendNotification(bookingConfirmationClientDTO);
         }
     }
+
+    public List<NotificationDispatcher.Failure> selectNotifications(List<BookingConfirmationClientDTO> bookingConfirmationClientDTOs) {
+        return notificationDispatcher.dispatchAll(bookingConfirmationClientDTOs, this::selectNotification);
+    }
 }
@@ -0,0 +1,147 @@
+package org.example.confirmationboot.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.example.confirmationboot.model.DeliveryResult;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps up to {@code pool-size} authenticated SMTP transports open and sends messages over them,
+ * so the connect / STARTTLS / AUTH round trips are paid once per session instead of once per message.
+ * A session is recycled after {@code max-messages-per-session} messages and reconnected once when the server dropped it.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool implements DisposableBean {
+
+    private final JavaMailSenderImpl mailSender;
+    private final int maxMessagesPerSession;
+    private final BlockingQueue<PooledTransport> transports;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${confirmation_boot.smtp.pool-size:4}") int poolSize,
+                             @Value("${confirmation_boot.smtp.max-messages-per-session:100}") int maxMessagesPerSession) {
+        this.mailSender = mailSender;
+        this.maxMessagesPerSession = maxMessagesPerSession;
+        this.transports = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            transports.add(new PooledTransport());
+        }
+    }
+
+    public DeliveryResult send(SimpleMailMessage message) {
+        return sendAll(List.of(message)).get(0);
+    }
+
+    public List<DeliveryResult> sendAll(List<SimpleMailMessage> messages) {
+        var results = new ArrayList<DeliveryResult>(messages.size());
+        PooledTransport pooled = borrow();
+        try {
+            for (SimpleMailMessage message : messages) {
+                results.add(deliver(pooled, message));
+            }
+        } finally {
+            transports.add(pooled);
+        }
+        return results;
+    }
+
+    private DeliveryResult deliver(PooledTransport pooled, SimpleMailMessage message) {
+        var recipient = message.getTo() == null ? null : String.join(",", message.getTo());
+        MimeMessage mimeMessage;
+        try {
+            mimeMessage = toMimeMessage(message);
+        } catch (MessagingException e) {
+            return DeliveryResult.failed(recipient, e.getMessage());
+        }
+
+        try {
+            pooled.send(mimeMessage);
+            return DeliveryResult.delivered(recipient);
+        } catch (SendFailedException e) {
+            return DeliveryResult.failed(recipient, e.getMessage());
+        } catch (MessagingException e) {
+            log.info("SMTP session failed, reconnecting: " + e.getMessage());
+            pooled.close();
+        }
+
+        try {
+            pooled.send(mimeMessage);
+            return DeliveryResult.delivered(recipient);
+        } catch (MessagingException e) {
+            pooled.close();
+            return DeliveryResult.failed(recipient, e.getMessage());
+        }
+    }
+
+    private MimeMessage toMimeMessage(SimpleMailMessage message) throws MessagingException {
+        var mimeMessage = new MimeMessage(mailSender.getSession());
+        message.copyTo(new MimeMailMessage(mimeMessage));
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    private PooledTransport borrow() {
+        try {
+            return transports.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an SMTP transport", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        transports.forEach(PooledTransport::close);
+    }
+
+    private class PooledTransport {
+
+        private Transport transport;
+        private int sent;
+
+        void send(MimeMessage message) throws MessagingException {
+            if (transport == null || !transport.isConnected() || sent >= maxMessagesPerSession) {
+                close();
+                transport = mailSender.getSession().getTransport(Objects.requireNonNullElse(mailSender.getProtocol(), JavaMailSenderImpl.DEFAULT_PROTOCOL));
+                transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            }
+            var recipients = message.getAllRecipients();
+            if (recipients == null || recipients.length == 0) {
+                throw new SendFailedException("No recipient addresses");
+            }
+            transport.sendMessage(message, recipients);
+            sent++;
+        }
+
+        void close() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    log.info("Error closing SMTP transport: " + e.getMessage());
+                }
+            }
+            transport = null;
+            sent = 0;
+        }
+    }
+}
@@ -1,24 +1,33 @@
 package org.example.confirmationboot;
 
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.confirmationboot.config.KafkaConsumer;
 import org.example.confirmationboot.exception.InvalidConfirmationMethodException;
 import org.example.confirmationboot.model.BookingConfirmationClientDTO;
+import org.example.confirmationboot.model.ConfirmationMethod;
 import org.example.confirmationboot.notification.EmailNotificationStrategy;
 import org.example.confirmationboot.notification.SmsNotificationStrategy;
+import org.example.confirmationboot.service.NotificationDispatcher;
 import org.example.confirmationboot.service.NotificationService;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.MailSendException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
-import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 @ActiveProfiles("test")
@@ -76,4 +85,101 @@ class ConfirmationBootApplicationTests {
                 .isInstanceOf(InvalidConfirmationMethodException.class)
                 .hasMessage("Invalid confirmation method: " + "XXX");
     }
+
+    @Test
+    void testDispatcherBoundsConcurrencyAndWaitsForBatch() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(4, new SimpleMeterRegistry());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger firstWaveMet = new AtomicInteger();
+        CountDownLatch firstWave = new CountDownLatch(4);
+        List<Integer> batch = IntStream.range(0, 20).boxed().toList();
+
+        var failures = dispatcher.dispatchAll(batch, item -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            firstWave.countDown();
+            try {
+                if (firstWave.await(10, TimeUnit.SECONDS)) {
+                    firstWaveMet.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            done.incrementAndGet();
+        });
+        dispatcher.destroy();
+
+        assertThat(failures).isEmpty();
+        assertThat(done.get()).isEqualTo(20);
+        assertThat(firstWaveMet.get()).isEqualTo(20);
+        assertThat(maxInFlight.get()).isEqualTo(4);
+    }
+
+    @Test
+    void testDispatcherReportsFailuresWithoutStoppingBatch() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(4, meterRegistry);
+        AtomicInteger done = new AtomicInteger();
+
+        var failures = dispatcher.dispatchAll(List.of("EMAIL", "XXX", "SMS", "XXX"), method -> {
+            ConfirmationMethod.getConfirmationMethod(method);
+            done.incrementAndGet();
+        });
+        dispatcher.destroy();
+
+        assertThat(failures).extracting(NotificationDispatcher.Failure::index).containsExactly(1, 3);
+        assertThat(failures).allSatisfy(failure -> assertThat(failure.cause()).isInstanceOf(InvalidConfirmationMethodException.class));
+        assertThat(done.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("confirmation.notifications.delivery").tag("outcome", "delivered").timer().count()).isEqualTo(2L);
+        assertThat(meterRegistry.get("confirmation.notifications.delivery").tag("outcome", "failed").timer().count()).isEqualTo(2L);
+    }
+
+    @Test
+    void testConsumerRetriesOnlyUndeliveredNotifications() {
+        EmailNotificationStrategy email = mock(EmailNotificationStrategy.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(4, meterRegistry);
+        KafkaConsumer consumer = new KafkaConsumer(new NotificationService(email, mock(SmsNotificationStrategy.class), dispatcher),
+                10, 3, meterRegistry);
+        List<BookingConfirmationClientDTO> batch = IntStream.range(0, 3).mapToObj(i -> confirmation("EMAIL", i)).toList();
+        doThrow(new MailSendException("SMTP unavailable")).doNothing().when(email).sendNotification(batch.get(0));
+
+        consumer.consume(batch);
+        dispatcher.destroy();
+
+        verify(email, times(2)).sendNotification(batch.get(0));
+        verify(email, times(1)).sendNotification(batch.get(1));
+        verify(email, times(1)).sendNotification(batch.get(2));
+        assertThat(meterRegistry.get("confirmation.notifications.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void testConsumerDropsNotificationsAfterRetries() {
+        EmailNotificationStrategy email = mock(EmailNotificationStrategy.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(4, meterRegistry);
+        KafkaConsumer consumer = new KafkaConsumer(new NotificationService(email, mock(SmsNotificationStrategy.class), dispatcher),
+                10, 2, meterRegistry);
+        List<BookingConfirmationClientDTO> batch = List.of(confirmation("EMAIL", 0), confirmation("XXX", 1), confirmation("EMAIL", 2));
+        doThrow(new MailSendException("Mailbox unavailable")).when(email).sendNotification(batch.get(0));
+
+        consumer.consume(batch);
+        dispatcher.destroy();
+
+        verify(email, times(3)).sendNotification(batch.get(0));
+        verify(email, times(1)).sendNotification(batch.get(2));
+        assertThat(meterRegistry.get("confirmation.notifications.dropped").counter().count()).isEqualTo(2.0);
+    }
+
+    private static BookingConfirmationClientDTO confirmation(String method, int i) {
+        BookingConfirmationClientDTO confirmationDTO = new BookingConfirmationClientDTO();
+        confirmationDTO.setConfirmationMethod(method);
+        confirmationDTO.setPatientEmail("patient" + i + "@example.com");
+        confirmationDTO.setDoctorName("Kowalski");
+        confirmationDTO.setScheduleDay(LocalDate.of(2030, 7, 17));
+        confirmationDTO.setScheduleHour(LocalTime.of(12, 0, 0));
+        return confirmationDTO;
+    }
 }
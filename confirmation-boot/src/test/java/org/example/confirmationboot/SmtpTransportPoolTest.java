@@ -0,0 +1,158 @@
+package org.example.confirmationboot;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.confirmationboot.model.BookingConfirmationClientDTO;
+import org.example.confirmationboot.model.DeliveryResult;
+import org.example.confirmationboot.notification.EmailNotificationStrategy;
+import org.example.confirmationboot.service.EmailService;
+import org.example.confirmationboot.service.NotificationDispatcher;
+import org.example.confirmationboot.service.SmtpTransportPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class SmtpTransportPoolTest {
+
+    private static final int MESSAGES = 300;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool smtpTransportPool;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        smtpTransportPool = new SmtpTransportPool(mailSender, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        smtpTransportPool.destroy();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testPooledDeliveryThroughput() {
+        List<SimpleMailMessage> messages = IntStream.range(0, MESSAGES).mapToObj(this::message).toList();
+
+        long begin = System.nanoTime();
+        messages.forEach(mailSender::send);
+        double perMessage = MESSAGES / ((System.nanoTime() - begin) / 1_000_000_000.0);
+
+        begin = System.nanoTime();
+        List<DeliveryResult> results = smtpTransportPool.sendAll(messages);
+        double pooled = MESSAGES / ((System.nanoTime() - begin) / 1_000_000_000.0);
+
+        log.info("SMTP benchmark: messages={}, connection per message msg/sec={}, pooled msg/sec={}",
+                MESSAGES, Math.round(perMessage), Math.round(pooled));
+        assertThat(results).hasSize(MESSAGES).allMatch(DeliveryResult::isDelivered);
+        assertThat(greenMail.getReceivedMessages()).hasSize(2 * MESSAGES);
+    }
+
+    @Test
+    void testReconnectsAfterServerRestartAndReportsFailures() {
+        assertThat(smtpTransportPool.send(message(1)).isDelivered()).isTrue();
+
+        greenMail.stop();
+        DeliveryResult failed = smtpTransportPool.send(message(2));
+        greenMail.start();
+        DeliveryResult reconnected = smtpTransportPool.send(message(3));
+
+        assertThat(failed.isDelivered()).isFalse();
+        assertThat(failed.getRecipient()).isEqualTo("patient2@example.com");
+        assertThat(failed.getError()).isNotBlank();
+        assertThat(reconnected.isDelivered()).isTrue();
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    void testUndeliveredEmailReportedAsFailure() throws IOException {
+        SmtpTransportPool failingPool = unreachablePool();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(4, new SimpleMeterRegistry());
+        EmailNotificationStrategy emailNotificationStrategy = new EmailNotificationStrategy(emailService(failingPool));
+
+        var failures = dispatcher.dispatchAll(List.of(confirmation(1)), emailNotificationStrategy::sendNotification);
+        dispatcher.destroy();
+        failingPool.destroy();
+
+        assertThat(failures).singleElement().satisfies(failure -> {
+            assertThat(failure.index()).isEqualTo(0);
+            assertThat(failure.cause()).isInstanceOf(MailSendException.class).hasMessageContaining("patient1@example.com");
+        });
+    }
+
+    @Test
+    void testDeliveryMetricTaggedWithTransportOutcome() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(4, meterRegistry);
+        SmtpTransportPool failingPool = unreachablePool();
+        EmailNotificationStrategy delivering = new EmailNotificationStrategy(emailService(smtpTransportPool));
+        EmailNotificationStrategy failing = new EmailNotificationStrategy(emailService(failingPool));
+
+        dispatcher.dispatchAll(List.of(confirmation(1), confirmation(2)), delivering::sendNotification);
+        dispatcher.dispatchAll(List.of(confirmation(3)), failing::sendNotification);
+        dispatcher.destroy();
+        failingPool.destroy();
+
+        assertThat(meterRegistry.get("confirmation.notifications.delivery").tag("outcome", "delivered").timer().count()).isEqualTo(2L);
+        assertThat(meterRegistry.get("confirmation.notifications.delivery").tag("outcome", "failed").timer().count()).isEqualTo(1L);
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+    }
+
+    private SmtpTransportPool unreachablePool() throws IOException {
+        var unreachable = new JavaMailSenderImpl();
+        unreachable.setHost("localhost");
+        try (var socket = new ServerSocket(0)) {
+            unreachable.setPort(socket.getLocalPort());
+        }
+        return new SmtpTransportPool(unreachable, 1, 100);
+    }
+
+    private static EmailService emailService(SmtpTransportPool pool) {
+        var emailService = new EmailService(pool);
+        ReflectionTestUtils.setField(emailService, "email", "booking@example.com");
+        return emailService;
+    }
+
+    private static BookingConfirmationClientDTO confirmation(int i) {
+        var confirmation = new BookingConfirmationClientDTO();
+        confirmation.setConfirmationMethod("EMAIL");
+        confirmation.setPatientEmail("patient" + i + "@example.com");
+        confirmation.setDoctorName("Kowalski");
+        confirmation.setScheduleDay(LocalDate.of(2030, 7, 17));
+        confirmation.setScheduleHour(LocalTime.of(12, 0, 0));
+        return confirmation;
+    }
+
+    private SimpleMailMessage message(int i) {
+        var message = new SimpleMailMessage();
+        message.setFrom("booking@example.com");
+        message.setTo("patient" + i + "@example.com");
+        message.setSubject("Confirmation of new schedule booking");
+        message.setText("Booking was created successfully");
+        return message;
+    }
+}